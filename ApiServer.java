@@ -0,0 +1,492 @@
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A read-only HTTP API over DataManager, so other systems can fetch the same numbers
+ * the Reports tab shows without anyone exporting them by hand. Every response is JSON
+ * in ReportWriter's format (an array with one object per row), written to the socket
+ * as it is produced.
+ *
+ *   GET /api/summary/overview | batches | semesters | months | sessions
+ *   GET /api/students?batch=B&after=ID&limit=N
+ *   GET /api/students/{id}
+ *   GET /api/students/{id}/attempts
+ *   GET /api/attempts?semester=&batch=&status=&search=&from=&to=&after=ATTEMPT_ID&limit=N
+ *   GET /api/attempts/export?(the same filters)        every match, streamed
+ *
+ * Pages hold at most MAX_PAGE_SIZE rows; when there may be more, a Link header with
+ * rel="next" gives the URL of the next page. Pages are found by keyset, like the
+ * attempt tables' pages, so deep pages cost no more than the first: the next page
+ * starts after the last row's Student ID or Attempt ID. Attempt IDs are written as
+ * strings: they are above 2^53, so a client that reads JSON numbers as doubles would
+ * round them and page from the wrong row.
+ *
+ * Every successful response carries an ETag naming the DataVersion it was read at.
+ * A client that sends it back in If-None-Match gets 304 Not Modified until the data
+ * changes, once the request is known to be valid and its resource to exist; only a
+ * single student's resources look anything up for that. The version is re-read only
+ * after a write through this DataManager, or once per nptel.apiVersionCheckMillis
+ * (default 1000) to notice other processes' writes.
+ *
+ * Requests run on virtual threads where the JDK has them (21 and later), otherwise on
+ * a pool of nptel.apiThreads (default 16) threads. Started from the app when
+ * nptel.apiPort is set, bound to nptel.apiHost (default localhost), or on its own:
+ *
+ * Usage: java -cp .;sqlite-jdbc-3.51.0.0.jar ApiServer [port] [jdbc url]
+ */
+public class ApiServer {
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    // What an endpoint returns instead of a row count when it answered 304
+    private static final long NOT_MODIFIED = -1;
+    private static final String[] STUDENT_COLUMNS = {"Student ID", "Name", "Email", "Batch", "Department", "Semester"};
+    private static final String[] ATTEMPT_COLUMNS = {"Attempt ID", "Student ID", "NPTEL ID", "Course", "Date", "Score", "Semester", "Status"};
+    // The filtered attempt report's columns, led by the id clients page and de-duplicate by
+    private static final String[] FILTERED_COLUMNS = filteredColumns();
+
+    private final DataManager dataManager;
+    private final ReportEngine reports;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final DataChangeListener changeListener;
+    private final long versionCheckNanos =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong("nptel.apiVersionCheckMillis", 1000));
+
+    // The ETag of the current data; re-read when a write is seen or the check interval has passed
+    private final AtomicBoolean changed = new AtomicBoolean(true);
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private volatile String etag;
+    private volatile long checkedAt;
+    // Set by stop(), so exports still streaming give up rather than hold the shutdown
+    private volatile boolean stopping;
+
+    public ApiServer(DataManager dataManager, String host, int port) throws IOException {
+        this.dataManager = dataManager;
+        this.reports = new ReportEngine(dataManager);
+        this.server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        this.executor = newExecutor();
+        this.changeListener = event -> changed.set(true);
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        DataManager dataManager = args.length > 1 ? new DataManager(args[1]) : new DataManager();
+        Metrics.get().register();
+        Metrics.get().startDumpFromProperties();
+
+        ApiServer server = new ApiServer(dataManager, System.getProperty("nptel.apiHost", "localhost"), port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            dataManager.close();
+        }));
+        server.start();
+        System.out.println("Serving " + dataManager.getDbUrl() + " at http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/api/");
+    }
+
+    /**
+     * Starts a server on nptel.apiPort, if that is set.
+     * @return the running server, or null if none was asked for or it could not start
+     */
+    public static ApiServer startFromProperties(DataManager dataManager) {
+        Integer port = Integer.getInteger("nptel.apiPort");
+        if (port == null) return null;
+        try {
+            ApiServer server = new ApiServer(dataManager, System.getProperty("nptel.apiHost", "localhost"), port);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            System.err.println("API server not started on port " + port + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * One virtual thread per request where available; a fixed pool of daemon threads
+     * on older JDKs. Looked up by reflection so the class still compiles for Java 17.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newFixedThreadPool(Integer.getInteger("nptel.apiThreads", 16), task -> {
+                Thread thread = new Thread(task, "api-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    public void start() {
+        dataManager.addDataChangeListener(changeListener);
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, gives running ones a second to finish, then stops.
+     */
+    public void stop() {
+        stopping = true;
+        server.stop(1);
+        executor.shutdown();
+        dataManager.removeDataChangeListener(changeListener);
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    // --- Requests ---
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String name = "api.error";
+        long rows = 0;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Only GET is supported");
+                return;
+            }
+            String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+            Map<String, String> params = queryParams(exchange.getRequestURI());
+            // Only known routes get their own timings, so odd URLs cannot grow the metrics
+            name = !isRoute(path) ? "api.notFound"
+                    : "api." + path[0] + (path.length > 1 && !path[0].equals("students") ? "." + path[1] : "");
+            rows = route(exchange, path, params, currentETag());
+            if (rows == NOT_MODIFIED) {
+                name = "api.notModified";
+                rows = 0;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("API error: " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + " failed: " + e);
+            if (exchange.getResponseCode() == -1) sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+            Metrics.get().record(name, start, rows, exchange.getRequestURI().toString());
+        }
+    }
+
+    private static boolean isRoute(String[] path) {
+        switch (path[0]) {
+            case "summary":
+                return path.length == 2 && List.of("overview", "batches", "semesters", "months", "sessions").contains(path[1]);
+            case "students":
+                return path.length == 1 || path.length == 2 || (path.length == 3 && path[2].equals("attempts"));
+            case "attempts":
+                return path.length == 1 || (path.length == 2 && path[1].equals("export"));
+            default:
+                return false;
+        }
+    }
+
+    /** @return the number of rows written, or NOT_MODIFIED */
+    private long route(HttpExchange exchange, String[] path, Map<String, String> params, String tag) throws IOException {
+        if (!isRoute(path)) {
+            sendError(exchange, 404, "No such resource: " + exchange.getRequestURI().getPath());
+            return 0;
+        }
+        switch (path[0]) {
+            case "summary": return summary(exchange, path[1], params, tag);
+            case "students":
+                if (path.length == 1) return students(exchange, params, tag);
+                return path.length == 2 ? student(exchange, path[1], tag) : studentAttempts(exchange, path[1], tag);
+            default:
+                return path.length == 1 ? attempts(exchange, params, tag) : exportAttempts(exchange, params, tag);
+        }
+    }
+
+    private long summary(HttpExchange exchange, String report, Map<String, String> params, String tag) throws IOException {
+        AttemptFilter filter = filter(params);
+        if (notModified(exchange, tag)) return NOT_MODIFIED;
+        List<Object[]> rows;
+        String[] columns;
+        switch (report) {
+            case "overview":
+                columns = ReportEngine.OVERVIEW_COLUMNS;
+                rows = List.<Object[]>of(reports.overview());
+                break;
+            case "batches":
+                columns = ReportEngine.BATCH_COLUMNS;
+                rows = reports.batchSummary();
+                break;
+            case "semesters":
+                columns = ReportEngine.SEMESTER_COLUMNS;
+                rows = reports.semesterSummary();
+                break;
+            case "months":
+                columns = ReportEngine.EXAM_MONTH_COLUMNS;
+                rows = reports.examMonthSummary(filter);
+                break;
+            default:
+                columns = ReportEngine.EXAM_SESSION_COLUMNS;
+                rows = reports.examSessionSummary(filter);
+                break;
+        }
+        try (Writer writer = sendJson(exchange, tag)) {
+            ReportWriter out = ReportWriter.forFormat("json", writer);
+            out.begin(columns);
+            for (Object[] row : rows) {
+                out.row(row);
+            }
+            out.end();
+        }
+        return rows.size();
+    }
+
+    private long students(HttpExchange exchange, Map<String, String> params, String tag) throws IOException {
+        int limit = intParam(params, "limit", DEFAULT_PAGE_SIZE, 1, MAX_PAGE_SIZE);
+        String batch = params.get("batch");
+        if (notModified(exchange, tag)) return NOT_MODIFIED;
+        List<Student> page = dataManager.queryStudentsPage(batch == null || batch.isEmpty() ? null : batch,
+                params.get("after"), limit);
+
+        if (page.size() == limit) {
+            setNextLink(exchange, params, "after", page.get(page.size() - 1).getId());
+        }
+        try (Writer writer = sendJson(exchange, tag)) {
+            ReportWriter out = ReportWriter.forFormat("json", writer);
+            out.begin(STUDENT_COLUMNS);
+            for (Student s : page) {
+                writeStudent(out, s);
+            }
+            out.end();
+        }
+        return page.size();
+    }
+
+    private long student(HttpExchange exchange, String id, String tag) throws IOException {
+        Optional<Student> student = dataManager.findStudentById(id);
+        if (!student.isPresent()) {
+            sendError(exchange, 404, "No student " + id);
+            return 0;
+        }
+        if (notModified(exchange, tag)) return NOT_MODIFIED;
+        try (Writer writer = sendJson(exchange, tag)) {
+            ReportWriter out = ReportWriter.forFormat("json", writer);
+            out.begin(STUDENT_COLUMNS);
+            writeStudent(out, student.get());
+            out.end();
+        }
+        return 1;
+    }
+
+    private long studentAttempts(HttpExchange exchange, String id, String tag) throws IOException {
+        if (!dataManager.findStudentById(id).isPresent()) {
+            sendError(exchange, 404, "No student " + id);
+            return 0;
+        }
+        if (notModified(exchange, tag)) return NOT_MODIFIED;
+        List<Attempt> attempts = dataManager.getAttemptsForStudent(id);
+        try (Writer writer = sendJson(exchange, tag)) {
+            ReportWriter out = ReportWriter.forFormat("json", writer);
+            out.begin(ATTEMPT_COLUMNS);
+            for (Attempt a : attempts) {
+                out.row(String.valueOf(a.getId()), a.getStudentId(), a.getNptelId(), a.getCourseName(), a.getExamDate(),
+                        a.getScore(), a.getSemester(), a.getStatus());
+            }
+            out.end();
+        }
+        return attempts.size();
+    }
+
+    /**
+     * One page of the filtered attempts. The page is read before anything is sent, so
+     * the Link header can carry the last row's id as the next page's cursor.
+     */
+    private long attempts(HttpExchange exchange, Map<String, String> params, String tag) throws IOException {
+        AttemptFilter filter = filter(params);
+        long after = params.containsKey("after") ? Long.parseLong(params.get("after")) : 0;
+        int limit = intParam(params, "limit", DEFAULT_PAGE_SIZE, 1, MAX_PAGE_SIZE);
+        if (notModified(exchange, tag)) return NOT_MODIFIED;
+        List<AttemptRow> page = dataManager.queryAttemptsPage(filter, after, 0, limit);
+
+        if (page.size() == limit) {
+            // An attempt's id is its rowid, which the pages are keyed on
+            setNextLink(exchange, params, "after", String.valueOf(page.get(page.size() - 1).getAttempt().getId()));
+        }
+        try (Writer writer = sendJson(exchange, tag)) {
+            ReportWriter out = ReportWriter.forFormat("json", writer);
+            out.begin(FILTERED_COLUMNS);
+            for (AttemptRow row : page) {
+                out.row(filteredRow(row));
+            }
+            out.end();
+        }
+        return page.size();
+    }
+
+    /**
+     * Every attempt matching the filter, a database page at a time, as the CLI writes
+     * them. Stops early when the server is stopped, or when a write fails, which is how
+     * a client that went away shows up once the socket's buffers are full.
+     */
+    private long exportAttempts(HttpExchange exchange, Map<String, String> params, String tag) throws IOException {
+        AttemptFilter filter = filter(params);
+        if (notModified(exchange, tag)) return NOT_MODIFIED;
+        try (Writer writer = sendJson(exchange, tag)) {
+            return reports.writeFiltered(filter, ReportWriter.forFormat("json", writer), FILTERED_COLUMNS,
+                    ApiServer::filteredRow, () -> stopping);
+        }
+    }
+
+    private static String[] filteredColumns() {
+        String[] columns = new String[ReportEngine.FILTERED_COLUMNS.length + 1];
+        columns[0] = "Attempt ID";
+        System.arraycopy(ReportEngine.FILTERED_COLUMNS, 0, columns, 1, ReportEngine.FILTERED_COLUMNS.length);
+        return columns;
+    }
+
+    private static Object[] filteredRow(AttemptRow row) {
+        Object[] cells = ReportEngine.filteredRow(row);
+        Object[] withId = new Object[cells.length + 1];
+        withId[0] = String.valueOf(row.getAttempt().getId());
+        System.arraycopy(cells, 0, withId, 1, cells.length);
+        return withId;
+    }
+
+    private static void writeStudent(ReportWriter out, Student s) throws IOException {
+        out.row(s.getId(), s.getName(), s.getEmail(), s.getBatch(), s.getDepartment(), s.getCurrentSemester());
+    }
+
+    // --- Versions ---
+
+    /**
+     * @return the ETag for the data as it is now, or null if the version could not be read
+     */
+    private String currentETag() {
+        long now = System.nanoTime();
+        if ((changed.get() || now - checkedAt >= versionCheckNanos) && refreshing.compareAndSet(false, true)) {
+            try {
+                changed.set(false); // Before the read, so a write during it is seen next time
+                DataVersion version = dataManager.dataVersion();
+                etag = version == null ? null : "\"" + version.getVersion() + "-" + version.getLastChange() + "-"
+                        + version.getStudents() + "-" + version.getAttempts() + "-" + version.getMaxAttemptId() + "\"";
+                checkedAt = now;
+            } finally {
+                refreshing.set(false);
+            }
+        }
+        return etag;
+    }
+
+    private static boolean matches(String ifNoneMatch, String tag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) candidate = candidate.substring(2);
+            if (candidate.equals("*") || candidate.equals(tag)) return true;
+        }
+        return false;
+    }
+
+    // --- Responses ---
+
+    /**
+     * Answers 304 if the version the client holds, named in If-None-Match, is current.
+     */
+    private static boolean notModified(HttpExchange exchange, String tag) throws IOException {
+        if (tag == null || !matches(exchange.getRequestHeaders().getFirst("If-None-Match"), tag)) return false;
+        exchange.getResponseHeaders().set("ETag", tag);
+        exchange.sendResponseHeaders(304, -1);
+        return true;
+    }
+
+    /**
+     * Sends a 200 with the body chunked, so it goes out as it is written.
+     */
+    private static Writer sendJson(HttpExchange exchange, String tag) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "application/json; charset=utf-8");
+        headers.set("Cache-Control", "no-cache");
+        if (tag != null) headers.set("ETag", tag);
+        exchange.sendResponseHeaders(200, 0);
+        return new BufferedWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        String text = message == null ? "" : message.replace("\\", "\\\\").replace("\"", "\\\"");
+        byte[] body = ("{\"error\":\"" + text + "\"}\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void setNextLink(HttpExchange exchange, Map<String, String> params, String key, String value) {
+        Map<String, String> next = new LinkedHashMap<>(params);
+        next.put(key, value);
+        StringBuilder url = new StringBuilder(exchange.getRequestURI().getPath());
+        char separator = '?';
+        for (Map.Entry<String, String> param : next.entrySet()) {
+            url.append(separator).append(URLEncoder.encode(param.getKey(), StandardCharsets.UTF_8))
+                    .append('=').append(URLEncoder.encode(param.getValue(), StandardCharsets.UTF_8));
+            separator = '&';
+        }
+        exchange.getResponseHeaders().set("Link", "<" + url + ">; rel=\"next\"");
+    }
+
+    // --- Parameters ---
+
+    private static Map<String, String> queryParams(URI uri) {
+        Map<String, String> params = new LinkedHashMap<>();
+        String query = uri.getRawQuery();
+        if (query == null) return params;
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            params.put(URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8),
+                    eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static AttemptFilter filter(Map<String, String> params) {
+        return new AttemptFilter(params.get("semester"), params.get("batch"), params.get("status"), params.get("search"),
+                dateParam(params, "from"), dateParam(params, "to"));
+    }
+
+    private static LocalDate dateParam(Map<String, String> params, String key) {
+        String value = params.get(key);
+        return value == null || value.isEmpty() ? null : LocalDate.parse(value);
+    }
+
+    private static int intParam(Map<String, String> params, String key, int defaultValue, int min, int max) {
+        String value = params.get(key);
+        if (value == null || value.isEmpty()) return defaultValue;
+        int n = Integer.parseInt(value);
+        if (n < min || n > max) {
+            throw new IllegalArgumentException(key + " must be between " + min + " and " + max);
+        }
+        return n;
+    }
+}
\ No newline at end of file
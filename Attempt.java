@@ -2,18 +2,18 @@ import java.io.Serializable;
 import java.time.LocalDate;
 
 public class Attempt implements Serializable {
-    private String id;
+    private long id;
     private String studentId;
     private String nptelId;
     private String courseName;
     private LocalDate examDate;
     private int score;
-    private String semester;
-    private String status;
+    private Semester semester;
+    private Status status;
 
     // Original constructor (for NEW attempts)
-    public Attempt(String studentId, String nptelId, String courseName, LocalDate examDate, int score, String semester, String status) {
-        this.id = String.valueOf(System.currentTimeMillis()); // Unique ID
+    public Attempt(String studentId, String nptelId, String courseName, LocalDate examDate, int score, Semester semester, Status status) {
+        this.id = AttemptIdGenerator.next(); // Unique ID
         this.studentId = studentId;
         this.nptelId = nptelId;
         this.courseName = courseName;
@@ -24,7 +24,7 @@ public class Attempt implements Serializable {
     }
 
     // New constructor (for loading EXISTING attempts from DB)
-    public Attempt(String id, String studentId, String nptelId, String courseName, LocalDate examDate, int score, String semester, String status) {
+    public Attempt(long id, String studentId, String nptelId, String courseName, LocalDate examDate, int score, Semester semester, Status status) {
         this.id = id; // Use the ID from the database
         this.studentId = studentId;
         this.nptelId = nptelId;
@@ -36,12 +36,12 @@ public class Attempt implements Serializable {
     }
 
     // Getters and Setters
-    public String getId() { return id; }
+    public long getId() { return id; }
     public String getStudentId() { return studentId; }
     public String getNptelId() { return nptelId; }
     public String getCourseName() { return courseName; }
     public LocalDate getExamDate() { return examDate; }
     public int getScore() { return score; }
-    public String getSemester() { return semester; }
-    public String getStatus() { return status; }
+    public Semester getSemester() { return semester; }
+    public Status getStatus() { return status; }
 }
\ No newline at end of file
@@ -0,0 +1,213 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A column-oriented copy of the attempts, kept for aggregates. Each attempt is one
+ * slot in a set of parallel primitive arrays: scores in an int[], semester and status
+ * as bytes (the semester number and the Status flags), and the student as a dense int
+ * whose batch lives in a per-student array. Filter stats and counts are single passes over
+ * those arrays with no objects and no string comparisons per row.
+ *
+ * Not thread-safe; CachingDataManager only touches it under its own lock.
+ */
+public class AttemptColumns {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    // examDay of an attempt with no exam date
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    // Set in status[] for every attempt that has a status, so Status.FAIL (no flags) differs from none
+    private static final int HAS_STATUS = 8;
+
+    /**
+     * Maps each distinct value of a column (null included) to a small dense code.
+     */
+    private static class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final int maxSize;
+
+        Dictionary(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        int code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                if (values.size() == maxSize) {
+                    throw new IllegalStateException("More than " + maxSize + " distinct values in one column");
+                }
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        /** @return the value's code, or -1 if it has never been seen */
+        int find(String value) {
+            return codes.getOrDefault(value, -1);
+        }
+
+        String value(int code) { return values.get(code); }
+        int size() { return values.size(); }
+    }
+
+    private final Dictionary batches = new Dictionary(Short.MAX_VALUE);
+    private final Dictionary studentIds = new Dictionary(Integer.MAX_VALUE);
+
+    // Per student code
+    private short[] studentBatch = new short[INITIAL_CAPACITY];
+    private String[] studentName = new String[INITIAL_CAPACITY]; // Only read by the search text
+    private boolean[] studentPresent = new boolean[INITIAL_CAPACITY];
+
+    // Per attempt, in slots [0, size); a removed attempt's slot is filled with the last one
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] student = new int[INITIAL_CAPACITY];
+    private byte[] semester = new byte[INITIAL_CAPACITY]; // Semester number, 0 for none
+    private byte[] status = new byte[INITIAL_CAPACITY]; // Status flags | HAS_STATUS, 0 for none
+    private int[] score = new int[INITIAL_CAPACITY];
+    private int[] examDay = new int[INITIAL_CAPACITY]; // LocalDate.toEpochDay, or NO_DATE
+    // Only read by the search text
+    private String[] nptelId = new String[INITIAL_CAPACITY];
+    private String[] courseName = new String[INITIAL_CAPACITY];
+    private int size;
+    private final Map<Long, Integer> slotOfId = new HashMap<>();
+
+    public void clear() {
+        for (Dictionary dictionary : List.of(batches, studentIds)) {
+            dictionary.codes.clear();
+            dictionary.values.clear();
+        }
+        Arrays.fill(studentPresent, false);
+        Arrays.fill(studentName, null);
+        Arrays.fill(nptelId, 0, size, null);
+        Arrays.fill(courseName, 0, size, null);
+        slotOfId.clear();
+        size = 0;
+    }
+
+    // --- Updates ---
+
+    public void putStudent(Student s) {
+        int code = studentCode(s.getId());
+        studentBatch[code] = (short) batches.code(s.getBatch());
+        studentName[code] = s.getName();
+        studentPresent[code] = true;
+    }
+
+    /**
+     * Marks the student as gone. Their attempts must be removed separately.
+     */
+    public void removeStudent(String studentId) {
+        int code = studentIds.find(studentId);
+        if (code >= 0) {
+            studentPresent[code] = false;
+            studentName[code] = null;
+        }
+    }
+
+    public void addAttempt(Attempt attempt) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            student = Arrays.copyOf(student, capacity);
+            semester = Arrays.copyOf(semester, capacity);
+            status = Arrays.copyOf(status, capacity);
+            score = Arrays.copyOf(score, capacity);
+            examDay = Arrays.copyOf(examDay, capacity);
+            nptelId = Arrays.copyOf(nptelId, capacity);
+            courseName = Arrays.copyOf(courseName, capacity);
+        }
+        int slot = size++;
+        ids[slot] = attempt.getId();
+        student[slot] = studentCode(attempt.getStudentId());
+        semester[slot] = semesterCode(attempt.getSemester());
+        status[slot] = statusCode(attempt.getStatus());
+        score[slot] = attempt.getScore();
+        examDay[slot] = attempt.getExamDate() == null ? NO_DATE : (int) attempt.getExamDate().toEpochDay();
+        nptelId[slot] = attempt.getNptelId();
+        courseName[slot] = attempt.getCourseName();
+        slotOfId.put(attempt.getId(), slot);
+    }
+
+    public void removeAttempt(long attemptId) {
+        Integer slot = slotOfId.remove(attemptId);
+        if (slot == null) return;
+        int last = --size;
+        if (slot != last) {
+            ids[slot] = ids[last];
+            student[slot] = student[last];
+            semester[slot] = semester[last];
+            status[slot] = status[last];
+            score[slot] = score[last];
+            examDay[slot] = examDay[last];
+            nptelId[slot] = nptelId[last];
+            courseName[slot] = courseName[last];
+            slotOfId.put(ids[slot], slot);
+        }
+        nptelId[last] = null;
+        courseName[last] = null;
+    }
+
+    private int studentCode(String studentId) {
+        int code = studentIds.code(studentId);
+        if (code >= studentPresent.length) {
+            int capacity = Math.max(code + 1, studentPresent.length * 2);
+            studentBatch = Arrays.copyOf(studentBatch, capacity);
+            studentPresent = Arrays.copyOf(studentPresent, capacity);
+            studentName = Arrays.copyOf(studentName, capacity);
+        }
+        return code;
+    }
+
+    private static byte semesterCode(Semester value) {
+        return (byte) (value == null ? 0 : value.getNumber());
+    }
+
+    private static byte statusCode(Status value) {
+        return (byte) (value == null ? 0 : value.getFlags() | HAS_STATUS);
+    }
+
+    // --- Aggregates ---
+
+    public long count(AttemptFilter filter) {
+        return stats(filter).getAttempts();
+    }
+
+    /**
+     * Pass / elite / score totals over the attempts matching the filter, with the same
+     * matching rules as DataManager's SQL.
+     */
+    public AttemptStats stats(AttemptFilter filter) {
+        int semesterCode = filter.getSemester() == null ? -1 : semesterCode(filter.getSemester());
+        int statusCode = filter.getStatus() == null ? -1 : statusCode(filter.getStatus());
+        int batchCode = filter.getBatch() == null ? -1 : batches.find(filter.getBatch());
+        String search = filter.getSearchText();
+        boolean byDate = filter.getExamFrom() != null || filter.getExamTo() != null;
+        // NO_DATE is below any real day, so an open lower end still leaves undated attempts out
+        int fromDay = filter.getExamFrom() == null ? NO_DATE + 1 : (int) filter.getExamFrom().toEpochDay();
+        int toDay = filter.getExamTo() == null ? Integer.MAX_VALUE : (int) filter.getExamTo().toEpochDay();
+        if (filter.getBatch() != null && batchCode < 0) {
+            return new AttemptStats(); // A value no attempt has
+        }
+
+        long attempts = 0, passed = 0, elite = 0, scoreSum = 0;
+        for (int i = 0; i < size; i++) {
+            if (semesterCode >= 0 && semester[i] != semesterCode) continue;
+            if (statusCode >= 0 && status[i] != statusCode) continue;
+            if (byDate && (examDay[i] < fromDay || examDay[i] > toDay)) continue;
+            if (batchCode >= 0 && (!studentPresent[student[i]] || studentBatch[student[i]] != batchCode)) continue;
+            if (search != null && !AttemptSearch.matches(search, nptelId[i], courseName[i], studentName[student[i]])) continue;
+            // Same rules as AttemptStats.add, without a branch: a bit test shifted down to 0 or 1
+            int st = status[i];
+            attempts++;
+            passed += st & Status.PASSED_FLAG;
+            elite += (st & Status.ELITE_FLAG) >> 1;
+            scoreSum += score[i];
+        }
+        return new AttemptStats(attempts, passed, elite, scoreSum);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+import java.time.LocalDate;
+
+/**
+ * Criteria for DataManager.queryAttempts. A null criterion (or "All" / blank,
+ * as the filter combo boxes produce) matches every attempt. The search text
+ * matches attempts whose NPTEL ID, course name or student name contains it,
+ * ignoring ASCII case. Semester and status are given as the combo boxes show
+ * them ("3", "Elite + Gold"); anything else is an IllegalArgumentException.
+ * The exam date range includes both ends; either end may
+ * be null to leave that side open.
+ */
+public class AttemptFilter {
+    private final Semester semester;
+    private final String batch;
+    private final Status status;
+    private final String searchText;
+    private final LocalDate examFrom;
+    private final LocalDate examTo;
+
+    public AttemptFilter(String semester, String batch, String status, String searchText) {
+        this(semester, batch, status, searchText, null, null);
+    }
+
+    public AttemptFilter(String semester, String batch, String status, String searchText, LocalDate examFrom, LocalDate examTo) {
+        this.semester = normalize(semester) == null ? null : Semester.parse(semester);
+        this.batch = normalize(batch);
+        this.status = normalize(status) == null ? null : Status.parse(status);
+        this.searchText = normalize(searchText);
+        this.examFrom = examFrom;
+        this.examTo = examTo;
+    }
+
+    public static AttemptFilter all() {
+        return new AttemptFilter(null, null, null, null);
+    }
+
+    private static String normalize(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() || "All".equals(trimmed) ? null : trimmed;
+    }
+
+    /**
+     * Whether an exam on {@code date} falls in the range. An attempt with no date
+     * only matches when neither end is set.
+     */
+    public boolean matchesExamDate(LocalDate date) {
+        if (examFrom == null && examTo == null) return true;
+        return date != null
+                && (examFrom == null || !date.isBefore(examFrom))
+                && (examTo == null || !date.isAfter(examTo));
+    }
+
+    // Getters
+    public Semester getSemester() { return semester; }
+    public String getBatch() { return batch; }
+    public Status getStatus() { return status; }
+    public String getSearchText() { return searchText; }
+    public LocalDate getExamFrom() { return examFrom; }
+    public LocalDate getExamTo() { return examTo; }
+}
\ No newline at end of file
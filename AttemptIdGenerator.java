@@ -0,0 +1,85 @@
+import java.security.SecureRandom;
+import java.time.Instant;
+
+/**
+ * Hands out 64-bit attempt ids that never repeat, however fast they are asked for.
+ * Each id packs the milliseconds since 2024-01-01 (41 bits), a node number (10 bits)
+ * and a per-millisecond sequence (12 bits). Ids from one process are strictly
+ * increasing; up to 4096 can be issued per millisecond before the generator waits
+ * for the next one. If the clock steps backwards the last timestamp is reused, so ids
+ * never go down.
+ *
+ * Processes writing to one database must use different nodes, or two of them could
+ * issue the same id in the same millisecond. DataManager claims the database's next
+ * node when it opens it (see {@link #useNode(int)}), so a node only comes round again
+ * after NODES more processes have opened the database. Until then the node is picked
+ * at random.
+ *
+ * The smallest id issued is far above the millisecond timestamps used as ids before
+ * this generator existed, so new ids cannot collide with migrated ones.
+ */
+public final class AttemptIdGenerator {
+
+    private static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    static final int NODES = 1 << NODE_BITS;
+
+    private static final AttemptIdGenerator INSTANCE = new AttemptIdGenerator(new SecureRandom().nextInt(NODES));
+
+    private long node;
+    private long lastTimestamp = -1;
+    private long sequence;
+
+    public AttemptIdGenerator(int node) {
+        checkNode(node);
+        this.node = node;
+    }
+
+    private static void checkNode(int node) {
+        if (node < 0 || node >= NODES) {
+            throw new IllegalArgumentException("Node must be between 0 and " + (NODES - 1));
+        }
+    }
+
+    /**
+     * @return a new id from the app-wide generator
+     */
+    public static long next() {
+        return INSTANCE.nextId();
+    }
+
+    /**
+     * Switches the app-wide generator to a node claimed from the database.
+     */
+    public static void useNode(int node) {
+        INSTANCE.setNode(node);
+    }
+
+    public synchronized void setNode(int node) {
+        checkNode(node);
+        if (node == this.node) return;
+        this.node = node;
+        // The rest of this millisecond could sort below ids already issued on the old node
+        sequence = MAX_SEQUENCE;
+    }
+
+    public synchronized long nextId() {
+        long timestamp = Math.max(System.currentTimeMillis() - EPOCH, lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & MAX_SEQUENCE;
+            if (sequence == 0) {
+                // This millisecond is used up; wait for the clock to move on
+                while (timestamp <= lastTimestamp) {
+                    Thread.onSpinWait();
+                    timestamp = System.currentTimeMillis() - EPOCH;
+                }
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+}
\ No newline at end of file
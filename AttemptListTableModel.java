@@ -0,0 +1,39 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * A read-only TableModel over a fixed list of attempts, such as ranked search results,
+ * laid out like PagedAttemptTableModel so a table can switch between the two.
+ */
+public class AttemptListTableModel extends AbstractTableModel {
+
+    private final String[] columns;
+    private final Function<AttemptRow, Object[]> rowMapper;
+    private List<Object[]> cells = new ArrayList<>();
+
+    public AttemptListTableModel(String[] columns, Function<AttemptRow, Object[]> rowMapper) {
+        this.columns = columns;
+        this.rowMapper = rowMapper;
+    }
+
+    public void setRows(List<AttemptRow> rows) {
+        List<Object[]> mapped = new ArrayList<>(rows.size());
+        for (AttemptRow row : rows) {
+            mapped.add(rowMapper.apply(row));
+        }
+        cells = mapped;
+        fireTableDataChanged();
+    }
+
+    @Override public int getRowCount() { return cells.size(); }
+    @Override public int getColumnCount() { return columns.length; }
+    @Override public String getColumnName(int column) { return columns[column]; }
+    @Override public boolean isCellEditable(int row, int column) { return false; }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return cells.get(row)[column];
+    }
+}
\ No newline at end of file
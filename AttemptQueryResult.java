@@ -0,0 +1,19 @@
+import java.util.List;
+
+/**
+ * The rows matched by DataManager.queryAttempts together with their totals,
+ * both produced by the same query.
+ */
+public class AttemptQueryResult {
+    private final List<AttemptRow> rows;
+    private final AttemptStats stats;
+
+    public AttemptQueryResult(List<AttemptRow> rows, AttemptStats stats) {
+        this.rows = rows;
+        this.stats = stats;
+    }
+
+    // Getters
+    public List<AttemptRow> getRows() { return rows; }
+    public AttemptStats getStats() { return stats; }
+}
\ No newline at end of file
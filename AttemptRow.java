@@ -0,0 +1,24 @@
+/**
+ * An attempt joined with the name and batch of the student who made it.
+ * Name and batch are null when the attempt's student no longer exists.
+ */
+public class AttemptRow {
+    private final long rowId;
+    private final Attempt attempt;
+    private final String studentName;
+    private final String batch;
+
+    public AttemptRow(long rowId, Attempt attempt, String studentName, String batch) {
+        this.rowId = rowId;
+        this.attempt = attempt;
+        this.studentName = studentName;
+        this.batch = batch;
+    }
+
+    // Getters
+    /** @return the attempt's SQLite rowid, the key pages of attempts are ordered and seeked by */
+    public long getRowId() { return rowId; }
+    public Attempt getAttempt() { return attempt; }
+    public String getStudentName() { return studentName; }
+    public String getBatch() { return batch; }
+}
\ No newline at end of file
@@ -0,0 +1,64 @@
+/**
+ * The matching and ranking rules for the attempt search box, shared by the SQL
+ * and in-memory search paths so both return the same rows in the same order.
+ *
+ * Text matches the way SQLite's LIKE '%text%' does: a plain substring test that
+ * ignores case for ASCII letters only. Matches are ranked by where the text was
+ * found, best first: the whole NPTEL ID, the start of the NPTEL ID, anywhere in
+ * it, then the start of / anywhere in the course name, then the student name.
+ * Equal ranks are ordered newest attempt first.
+ */
+public final class AttemptSearch {
+
+    /** Rank given to an attempt the text does not match at all. */
+    public static final int NO_MATCH = 7;
+
+    private AttemptSearch() {
+    }
+
+    /**
+     * @return 0 for the best kind of match up to 6 for the weakest, or {@link #NO_MATCH}
+     */
+    public static int rank(String text, String nptelId, String courseName, String studentName) {
+        if (nptelId != null) {
+            if (nptelId.length() == text.length() && startsWithIgnoreAsciiCase(nptelId, text)) return 0;
+            if (startsWithIgnoreAsciiCase(nptelId, text)) return 1;
+            if (containsIgnoreAsciiCase(nptelId, text)) return 2;
+        }
+        if (startsWithIgnoreAsciiCase(courseName, text)) return 3;
+        if (containsIgnoreAsciiCase(courseName, text)) return 4;
+        if (startsWithIgnoreAsciiCase(studentName, text)) return 5;
+        if (containsIgnoreAsciiCase(studentName, text)) return 6;
+        return NO_MATCH;
+    }
+
+    public static boolean matches(String text, String nptelId, String courseName, String studentName) {
+        return containsIgnoreAsciiCase(nptelId, text)
+                || containsIgnoreAsciiCase(courseName, text)
+                || containsIgnoreAsciiCase(studentName, text);
+    }
+
+    public static boolean startsWithIgnoreAsciiCase(String value, String prefix) {
+        return value != null && value.length() >= prefix.length() && regionMatches(value, 0, prefix);
+    }
+
+    public static boolean containsIgnoreAsciiCase(String value, String text) {
+        if (value == null) return false;
+        int last = value.length() - text.length();
+        for (int start = 0; start <= last; start++) {
+            if (regionMatches(value, start, text)) return true;
+        }
+        return false;
+    }
+
+    private static boolean regionMatches(String value, int start, String text) {
+        for (int j = 0; j < text.length(); j++) {
+            if (toLowerAscii(value.charAt(start + j)) != toLowerAscii(text.charAt(j))) return false;
+        }
+        return true;
+    }
+
+    public static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+/**
+ * Running pass / elite / score totals over a set of attempts.
+ * An attempt counts as passed or elite when its Status says so; one with no
+ * status counts as neither.
+ */
+public class AttemptStats {
+    private long attempts;
+    private long passed;
+    private long elite;
+    private long scoreSum;
+
+    public AttemptStats() {
+    }
+
+    public AttemptStats(long attempts, long passed, long elite, long scoreSum) {
+        this.attempts = attempts;
+        this.passed = passed;
+        this.elite = elite;
+        this.scoreSum = scoreSum;
+    }
+
+    public void add(Attempt attempt) {
+        attempts++;
+        Status status = attempt.getStatus();
+        if (status != null) {
+            if (status.isPassed()) passed++;
+            if (status.isElite()) elite++;
+        }
+        scoreSum += attempt.getScore();
+    }
+
+    // Getters
+    public long getAttempts() { return attempts; }
+    public long getPassed() { return passed; }
+    public long getElite() { return elite; }
+    public long getScoreSum() { return scoreSum; }
+
+    /** @return passed attempts as a percentage of all attempts, 0 when there are none */
+    public double getPassRate() {
+        return attempts == 0 ? 0.0 : (double) passed / attempts * 100;
+    }
+
+    /** @return the mean score, 0 when there are no attempts */
+    public double getAverageScore() {
+        return attempts == 0 ? 0.0 : (double) scoreSum / attempts;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk write in DataManager: how many rows were applied and,
+ * for every row that was not, its key and the reason it was rejected.
+ */
+public class BatchResult {
+    private int applied;
+    private final Map<String, String> failures = new LinkedHashMap<>();
+
+    void recordApplied() { applied++; }
+    void recordFailure(String key, String reason) { failures.put(key, reason); }
+
+    public int getApplied() { return applied; }
+    public Map<String, String> getFailures() { return Collections.unmodifiableMap(failures); }
+    public boolean isSuccessful() { return failures.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return applied + " applied, " + failures.size() + " rejected";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,422 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A DataManager that keeps every student and attempt in memory, indexed by id,
+ * by student, by semester and by batch, plus a columnar copy of the attempts that
+ * answers filter stats and a trigram index that answers the search box. Both tables
+ * are loaded once, on first use; after that reads never touch the database. Report
+ * summaries still come from DataManager, whose summary tables are cheaper to read
+ * than any pass over the attempts. Writes go to SQLite as usual and the change
+ * events they publish are applied to the indexes under the same lock, so the two
+ * stay in step.
+ *
+ * To start faster, the loaded rows are saved to a {@link DatasetSnapshot} next to the
+ * database file on close, and the next load reads that instead of the tables. If the
+ * database has been written since, the snapshot is caught up from the change journal;
+ * only if that does not arrive at the database's {@link DataVersion} (it was edited
+ * by something other than DataManager, say) are the tables read. The trigram index
+ * is built on the first search that can use it rather than on load, as it costs more
+ * to build than everything else put together.
+ */
+public class CachingDataManager extends DataManager {
+
+    // Journal entries read per call while catching a snapshot up
+    private static final int CATCH_UP_CHUNK = 10_000;
+
+    // Insertion-ordered so list views keep the database's row order
+    private final Map<String, Student> studentsById = new LinkedHashMap<>();
+    private final Map<Long, Attempt> attemptsById = new LinkedHashMap<>();
+    private final Map<String, Map<Long, Attempt>> attemptsByStudent = new HashMap<>();
+    private final Map<Semester, Map<Long, Attempt>> attemptsBySemester = new HashMap<>();
+    private final Map<String, Map<String, Student>> studentsByBatch = new HashMap<>();
+    private final AttemptColumns columns = new AttemptColumns();
+    private final TrigramIndex searchIndex = new TrigramIndex();
+    private final Path snapshotFile;
+    private boolean loaded;
+    private boolean searchIndexed;
+    private boolean snapshotCurrent; // The snapshot file holds exactly what is loaded
+    private long appliedChange; // Every journal entry up to this one is reflected in what is loaded
+
+    public CachingDataManager() {
+        super();
+        snapshotFile = snapshotFileFor(getDbUrl());
+        addDataChangeListener(this::applyChange);
+    }
+
+    public CachingDataManager(String dbUrl) {
+        super(dbUrl);
+        snapshotFile = snapshotFileFor(dbUrl);
+        addDataChangeListener(this::applyChange);
+    }
+
+    /** @return the database file with ".snapshot" appended, or null for an in-memory database */
+    private static Path snapshotFileFor(String dbUrl) {
+        String file = dbUrl.startsWith("jdbc:sqlite:") ? dbUrl.substring("jdbc:sqlite:".length()) : "";
+        if (file.isEmpty() || file.startsWith(":memory:") || file.startsWith("file:")) return null;
+        return Paths.get(file + ".snapshot");
+    }
+
+    /**
+     * Drops everything held in memory; the next read reloads it from the database.
+     */
+    public synchronized void invalidate() {
+        studentsById.clear();
+        attemptsById.clear();
+        attemptsByStudent.clear();
+        attemptsBySemester.clear();
+        studentsByBatch.clear();
+        columns.clear();
+        searchIndex.clear();
+        loaded = false;
+        searchIndexed = false;
+        snapshotCurrent = false;
+        appliedChange = 0;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        long start = System.nanoTime();
+        DataVersion current = snapshotFile == null ? null : dataVersion();
+        DatasetSnapshot snapshot = current == null ? null : readSnapshot();
+        if (snapshot != null) {
+            load(snapshot.getStudents(), snapshot.getAttempts());
+            appliedChange = snapshot.getVersion().getLastChange();
+            snapshotCurrent = snapshot.getVersion().equals(current);
+            // A snapshot ahead of the database's journal belongs to some other copy of it
+            if (!snapshotCurrent && (appliedChange > current.getLastChange() || !catchUp() || matchingVersion() == null)) {
+                invalidate();
+                snapshot = null;
+            }
+        }
+        if (snapshot == null) {
+            load(super.getStudents(), super.getAttempts());
+            // Read before the tables, so any change made during the load is replayed, not missed
+            appliedChange = current == null ? 0 : current.getLastChange();
+        }
+        Metrics.get().record(snapshot != null ? "cache.loadSnapshot" : "cache.load", start,
+                studentsById.size() + attemptsById.size(), null);
+    }
+
+    private void load(List<Student> students, List<Attempt> attempts) {
+        for (Student student : students) {
+            indexStudent(student);
+        }
+        for (Attempt attempt : attempts) {
+            indexAttempt(attempt);
+        }
+        loaded = true;
+    }
+
+    /**
+     * Applies the journal entries after {@link #appliedChange} to what is loaded.
+     * Entries already reflected are harmless to apply again.
+     * @return false if the journal could not be read
+     */
+    private boolean catchUp() {
+        long start = System.nanoTime();
+        int applied = 0;
+        ChangeSet changes;
+        do {
+            changes = getChangesSince(appliedChange, CATCH_UP_CHUNK);
+            if (changes == null) return false;
+            for (DataChangeEvent change : changes.getChanges()) {
+                applyChange(change);
+            }
+            applied += changes.getChanges().size();
+            appliedChange = changes.getLastSequence();
+        } while (!changes.isComplete());
+        Metrics.get().record("cache.catchUp", start, applied, null);
+        return true;
+    }
+
+    /**
+     * @return the database's version if what is loaded has caught up with its journal
+     * and has the same rows by count and highest id, otherwise null
+     */
+    private DataVersion matchingVersion() {
+        DataVersion version = dataVersion();
+        return version != null && version.getLastChange() == appliedChange && version.sameRowsAs(loadedVersion())
+                ? version : null;
+    }
+
+    /**
+     * This DataManager's own writes are applied by their change events; they only
+     * advance the journal position if nothing from other processes came before them.
+     */
+    @Override
+    protected void journalCommitted(long first, long last) {
+        if (loaded && first == appliedChange + 1) {
+            appliedChange = last;
+        }
+    }
+
+    /** @return the counts of what is loaded, to compare with DataVersion.sameRowsAs */
+    private DataVersion loadedVersion() {
+        long maxId = attemptsById.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+        return new DataVersion(0, studentsById.size(), attemptsById.size(), maxId, 0);
+    }
+
+    private void ensureSearchIndexed() {
+        if (searchIndexed) return;
+        long start = System.nanoTime();
+        for (Attempt attempt : attemptsById.values()) {
+            Student student = studentsById.get(attempt.getStudentId());
+            searchIndex.add(attempt.getId(), attempt.getNptelId(), attempt.getCourseName(), student == null ? null : student.getName());
+        }
+        searchIndexed = true;
+        Metrics.get().record("cache.buildSearchIndex", start, attemptsById.size(), null);
+    }
+
+    // --- Snapshot ---
+
+    private DatasetSnapshot readSnapshot() {
+        try {
+            return DatasetSnapshot.read(snapshotFile);
+        } catch (IOException e) {
+            System.err.println("Snapshot not read: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes what is loaded to the snapshot file, unless it is already there. Writes
+     * other processes made since the load are caught up from the journal first, so the
+     * snapshot is stamped with the version its rows are. Skipped if that cannot be
+     * shown: the database was written again meanwhile, or edited outside DataManager.
+     */
+    public synchronized void saveSnapshot() {
+        if (snapshotFile == null || !loaded || snapshotCurrent) return;
+        long start = System.nanoTime();
+        DataVersion version = catchUp() ? matchingVersion() : null;
+        if (version == null) {
+            return;
+        }
+        try {
+            DatasetSnapshot.write(snapshotFile, version, studentsById.values(), attemptsById.values());
+            snapshotCurrent = true;
+        } catch (IOException e) {
+            System.err.println("Snapshot not saved: " + e.getMessage());
+        }
+        Metrics.get().record("cache.saveSnapshot", start, studentsById.size() + attemptsById.size(), null);
+    }
+
+    /**
+     * Saves the snapshot, if anything changed since it was read, then closes the connection.
+     */
+    @Override
+    public synchronized void close() {
+        saveSnapshot();
+        super.close();
+    }
+
+    // --- Student Methods ---
+
+    @Override
+    public synchronized List<Student> getStudents() {
+        ensureLoaded();
+        return new ArrayList<>(studentsById.values());
+    }
+
+    @Override
+    public synchronized Optional<Student> findStudentById(String id) {
+        ensureLoaded();
+        return Optional.ofNullable(studentsById.get(id));
+    }
+
+    @Override
+    public synchronized List<Student> getStudentsInBatch(String batch) {
+        ensureLoaded();
+        return new ArrayList<>(studentsByBatch.getOrDefault(batch, Collections.emptyMap()).values());
+    }
+
+    /**
+     * As DataManager's, but a student that no longer matches means this cache is behind
+     * another process's writes, so it is dropped and reloaded on the next read.
+     */
+    @Override
+    public synchronized boolean deleteStudent(Student expected) {
+        boolean deleted = super.deleteStudent(expected);
+        if (!deleted) invalidate();
+        return deleted;
+    }
+
+    // --- Attempt Methods ---
+
+    @Override
+    public synchronized List<Attempt> getAttempts() {
+        ensureLoaded();
+        return new ArrayList<>(attemptsById.values());
+    }
+
+    @Override
+    public synchronized List<Attempt> getAttemptsForStudent(String studentId) {
+        ensureLoaded();
+        return new ArrayList<>(attemptsByStudent.getOrDefault(studentId, Collections.emptyMap()).values());
+    }
+
+    @Override
+    public synchronized List<Attempt> getAttemptsForSemester(Semester semester) {
+        ensureLoaded();
+        return new ArrayList<>(attemptsBySemester.getOrDefault(semester, Collections.emptyMap()).values());
+    }
+
+    /**
+     * As DataManager's; on a mismatch the cache is reloaded, see deleteStudent(Student).
+     */
+    @Override
+    public synchronized boolean deleteAttempt(Attempt expected) {
+        boolean deleted = super.deleteAttempt(expected);
+        if (!deleted) invalidate();
+        return deleted;
+    }
+
+    @Override
+    public synchronized long countAttempts(AttemptFilter filter) {
+        ensureLoaded();
+        return columns.count(filter);
+    }
+
+    @Override
+    public synchronized AttemptStats attemptStats(AttemptFilter filter) {
+        ensureLoaded();
+        long start = System.nanoTime();
+        AttemptStats stats = columns.stats(filter);
+        Metrics.get().record("cache.attemptStats", start, 1, null);
+        return stats;
+    }
+
+    /**
+     * Ranks the attempts whose NPTEL ID, course or student name contain the search text,
+     * starting from the trigram index's candidates when the text is long enough to use
+     * it. Same results and order as DataManager's SQL version.
+     */
+    @Override
+    public synchronized List<AttemptRow> searchAttempts(AttemptFilter filter, int limit, BooleanSupplier cancelled) {
+        ensureLoaded();
+        long start = System.nanoTime();
+        String text = filter.getSearchText();
+        if (text != null) ensureSearchIndexed();
+        long[] ids = text == null ? null : searchIndex.candidates(text);
+        if (ids == null) {
+            ids = new long[attemptsById.size()];
+            int i = 0;
+            for (long id : attemptsById.keySet()) ids[i++] = id;
+            Arrays.sort(ids);
+        }
+
+        // One list per rank; walking the ids newest first keeps each list in result order
+        List<List<AttemptRow>> byRank = new ArrayList<>();
+        for (int rank = 0; rank < AttemptSearch.NO_MATCH; rank++) byRank.add(new ArrayList<>());
+        for (int i = ids.length - 1; i >= 0; i--) {
+            if ((i & 1023) == 0 && cancelled.getAsBoolean()) return new ArrayList<>();
+            Attempt attempt = attemptsById.get(ids[i]);
+            Student student = attempt == null ? null : studentsById.get(attempt.getStudentId());
+            if (attempt == null || !matches(filter, attempt, student)) continue;
+
+            String studentName = student == null ? null : student.getName();
+            int rank = text == null ? 0 : AttemptSearch.rank(text, attempt.getNptelId(), attempt.getCourseName(), studentName);
+            if (rank == AttemptSearch.NO_MATCH) continue;
+            List<AttemptRow> rows = byRank.get(rank);
+            if (rows.size() < limit) {
+                rows.add(new AttemptRow(attempt.getId(), attempt, studentName, student == null ? null : student.getBatch()));
+            }
+            if (rank == 0 && rows.size() == limit) break; // Nothing can outrank these
+        }
+
+        List<AttemptRow> result = new ArrayList<>();
+        for (List<AttemptRow> rows : byRank) {
+            result.addAll(rows.subList(0, Math.min(rows.size(), limit - result.size())));
+        }
+        Metrics.get().record("cache.searchAttempts", start, result.size(), text);
+        return result;
+    }
+
+    private static boolean matches(AttemptFilter filter, Attempt attempt, Student student) {
+        return (filter.getSemester() == null || filter.getSemester() == attempt.getSemester())
+                && (filter.getStatus() == null || filter.getStatus() == attempt.getStatus())
+                && filter.matchesExamDate(attempt.getExamDate())
+                && (filter.getBatch() == null || (student != null && filter.getBatch().equals(student.getBatch())));
+    }
+
+    // --- Index Maintenance ---
+
+    private void applyChange(DataChangeEvent event) {
+        if (!loaded) return; // Nothing cached yet; the first read will see this change
+        snapshotCurrent = false;
+        boolean insert = event.getType() == DataChangeEvent.Type.INSERT;
+        if (event.getEntity() == DataChangeEvent.Entity.STUDENT) {
+            if (insert) indexStudent(event.getStudent());
+            else unindexStudent(event.getStudentId());
+        } else {
+            if (insert) {
+                // Attempts never change once added, so one already held is the same row
+                if (!attemptsById.containsKey(event.getAttemptId())) indexAttempt(event.getAttempt());
+            } else {
+                unindexAttempt(event.getAttemptId());
+            }
+        }
+    }
+
+    private void indexStudent(Student student) {
+        studentsById.put(student.getId(), student);
+        studentsByBatch.computeIfAbsent(student.getBatch(), k -> new LinkedHashMap<>()).put(student.getId(), student);
+        columns.putStudent(student);
+    }
+
+    private void unindexStudent(String studentId) {
+        Student student = studentsById.remove(studentId);
+        if (student != null) {
+            removeFrom(studentsByBatch, student.getBatch(), studentId);
+        }
+        columns.removeStudent(studentId);
+        // Mirror the ON DELETE CASCADE
+        Map<Long, Attempt> attempts = attemptsByStudent.remove(studentId);
+        if (attempts != null) {
+            for (Attempt attempt : attempts.values()) {
+                attemptsById.remove(attempt.getId());
+                removeFrom(attemptsBySemester, attempt.getSemester(), attempt.getId());
+                columns.removeAttempt(attempt.getId());
+                searchIndex.remove(attempt.getId());
+            }
+        }
+    }
+
+    private void indexAttempt(Attempt attempt) {
+        attemptsById.put(attempt.getId(), attempt);
+        attemptsByStudent.computeIfAbsent(attempt.getStudentId(), k -> new LinkedHashMap<>()).put(attempt.getId(), attempt);
+        attemptsBySemester.computeIfAbsent(attempt.getSemester(), k -> new LinkedHashMap<>()).put(attempt.getId(), attempt);
+        columns.addAttempt(attempt);
+        if (!searchIndexed) return;
+        Student student = studentsById.get(attempt.getStudentId());
+        searchIndex.add(attempt.getId(), attempt.getNptelId(), attempt.getCourseName(), student == null ? null : student.getName());
+    }
+
+    private void unindexAttempt(long attemptId) {
+        Attempt attempt = attemptsById.remove(attemptId);
+        if (attempt != null) {
+            removeFrom(attemptsByStudent, attempt.getStudentId(), attemptId);
+            removeFrom(attemptsBySemester, attempt.getSemester(), attemptId);
+        }
+        columns.removeAttempt(attemptId);
+        searchIndex.remove(attemptId);
+    }
+
+    private static <G, K, V> void removeFrom(Map<G, Map<K, V>> index, G key, K id) {
+        Map<K, V> bucket = index.get(key);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) index.remove(key);
+        }
+    }
+}
\ No newline at end of file
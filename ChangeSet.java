@@ -0,0 +1,24 @@
+import java.util.List;
+
+/**
+ * Changes read from the change journal by DataManager.getChangesSince, in the order
+ * they were made, and the sequence number to read from next time.
+ */
+public class ChangeSet {
+    private final List<DataChangeEvent> changes;
+    private final long lastSequence;
+    private final boolean complete;
+
+    public ChangeSet(List<DataChangeEvent> changes, long lastSequence, boolean complete) {
+        this.changes = changes;
+        this.lastSequence = lastSequence;
+        this.complete = complete;
+    }
+
+    // Getters
+    public List<DataChangeEvent> getChanges() { return changes; }
+    /** @return the sequence number of the last journal entry read, to pass to the next call */
+    public long getLastSequence() { return lastSequence; }
+    /** @return false if the limit was reached and later entries may be left to read */
+    public boolean isComplete() { return complete; }
+}
\ No newline at end of file
@@ -0,0 +1,337 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Checks that several copies of the app can write to one database file at once without
+ * losing anything. For 1, 2, 4 ... up to the given number of writers it seeds a fresh
+ * database, then starts that many separate JVMs against it. Each adds students and
+ * attempts (singly and in batches), deletes some of its own attempts and races the
+ * others to delete a shared set of attempts with optimistic deletes, for the given
+ * number of seconds. Afterwards it checks that:
+ *   - no write failed, however long it had to wait for the lock
+ *   - every attempt a writer kept is in the database and every one it deleted is not
+ *   - each shared attempt was deleted by at most one writer
+ *   - the summary tables agree with a rebuild from the rows
+ *   - replaying the change journal over the seeded ids gives the final ids
+ *   - writer 0, which keeps a CachingDataManager, holds the same rows as the database
+ *     once it has caught up from the journal after the others stopped
+ * and prints the writes per second, retries and failures for each writer count.
+ *
+ * Usage: java -cp .;sqlite-jdbc-3.51.0.0.jar ConcurrencyStressTest [max writers] [seconds]
+ * (default 4 writers, 10 seconds); exits with 1 if a check fails
+ */
+public class ConcurrencyStressTest {
+
+    private static final int SEED_STUDENTS = 200;
+    private static final int SEED_ATTEMPTS = 2_000;
+    private static final int SHARED_ATTEMPTS = 500;
+    private static final int BATCH_ROWS = 10;
+    private static final String SHARED_STUDENT = "SHARED";
+    // Time given to every writer to start its JVM and connect before they all begin
+    private static final long START_DELAY_MILLIS = 5_000;
+
+    // Lines a writer prints for the parent; anything else is passed through
+    private static final String KEPT = "KEPT ";
+    private static final String GONE = "GONE ";
+    private static final String WON = "WON ";
+    private static final String STATS = "STATS ";
+    private static final String CACHE = "CACHE ";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && "--writer".equals(args[0])) {
+            writer(args[1], Integer.parseInt(args[2]), Long.parseLong(args[3]), Long.parseLong(args[4]));
+            return;
+        }
+        int maxWriters = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+
+        System.out.printf("%-8s %10s %10s %10s %10s %10s  %s%n",
+                "writers", "writes", "writes/s", "retries", "busy", "failed", "checks");
+        boolean passed = true;
+        for (int writers = 1; writers <= maxWriters; writers *= 2) {
+            passed &= round(writers, seconds);
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    // --- Parent ---
+
+    private static boolean round(int writers, long seconds) throws Exception {
+        Path dir = Files.createTempDirectory("nptel-stress");
+        String dbUrl = "jdbc:sqlite:" + dir.resolve("stress.db");
+        try {
+            Set<Long> seeded = seed(dbUrl);
+            DataManager dataManager = new DataManager(dbUrl);
+            long firstChange = dataManager.dataVersion().getLastChange();
+            dataManager.close();
+
+            long startAt = System.currentTimeMillis() + START_DELAY_MILLIS;
+            List<Process> processes = new ArrayList<>();
+            List<List<String>> outputs = new ArrayList<>();
+            List<Thread> readers = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                List<String> command = new ArrayList<>();
+                command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+                // Settings such as nptel.busyTimeoutMillis apply to the writers too
+                for (String name : System.getProperties().stringPropertyNames()) {
+                    if (name.startsWith("nptel.")) command.add("-D" + name + "=" + System.getProperty(name));
+                }
+                command.addAll(List.of("-cp", System.getProperty("java.class.path"), ConcurrencyStressTest.class.getName(),
+                        "--writer", dbUrl, String.valueOf(w), String.valueOf(seconds), String.valueOf(startAt)));
+                Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+                List<String> output = Collections.synchronizedList(new ArrayList<>());
+                // Read as it comes, so a writer never blocks on a full pipe
+                Thread reader = new Thread(() -> readLines(process, output), "stress-reader-" + w);
+                reader.start();
+                processes.add(process);
+                outputs.add(output);
+                readers.add(reader);
+            }
+            // The cached writer checks itself once nobody else can write
+            for (Process process : processes.subList(1, processes.size())) process.waitFor();
+            if (processes.get(0).isAlive()) {
+                try (OutputStream go = processes.get(0).getOutputStream()) {
+                    go.write('\n');
+                }
+            }
+            processes.get(0).waitFor();
+            for (Thread reader : readers) reader.join();
+
+            return check(writers, seconds, dbUrl, seeded, firstChange, outputs);
+        } finally {
+            deleteAll(dir);
+        }
+    }
+
+    /** @return the ids of the seeded attempts */
+    private static Set<Long> seed(String dbUrl) {
+        DataManager dataManager = new DataManager(dbUrl);
+        DatasetGenerator generator = new DatasetGenerator(42);
+        generator.populate(dataManager, SEED_STUDENTS, SEED_ATTEMPTS);
+        Student shared = generator.nextStudent();
+        shared.setId(SHARED_STUDENT);
+        dataManager.addStudent(shared);
+        List<Attempt> attempts = new ArrayList<>();
+        for (int i = 0; i < SHARED_ATTEMPTS; i++) attempts.add(generator.nextAttempt(shared));
+        dataManager.addAttempts(attempts);
+
+        Set<Long> ids = new HashSet<>();
+        for (Attempt attempt : dataManager.getAttempts()) ids.add(attempt.getId());
+        dataManager.close();
+        return ids;
+    }
+
+    private static boolean check(int writers, long seconds, String dbUrl, Set<Long> seeded, long firstChange,
+                                 List<List<String>> outputs) {
+        List<String> problems = new ArrayList<>();
+        Set<Long> kept = new HashSet<>();
+        Set<Long> gone = new HashSet<>();
+        Set<Long> won = new HashSet<>();
+        long writes = 0, retries = 0, busy = 0, failed = 0;
+        for (int w = 0; w < outputs.size(); w++) {
+            boolean reported = false;
+            for (String line : outputs.get(w)) {
+                if (line.startsWith(KEPT)) {
+                    kept.add(Long.parseLong(line.substring(KEPT.length())));
+                } else if (line.startsWith(GONE)) {
+                    gone.add(Long.parseLong(line.substring(GONE.length())));
+                } else if (line.startsWith(WON)) {
+                    if (!won.add(Long.parseLong(line.substring(WON.length())))) {
+                        problems.add("shared attempt deleted twice: " + line);
+                    }
+                } else if (line.startsWith(STATS)) {
+                    String[] stats = line.substring(STATS.length()).split(" ");
+                    writes += Long.parseLong(stats[0]);
+                    failed += Long.parseLong(stats[1]);
+                    retries += Long.parseLong(stats[2]);
+                    busy += Long.parseLong(stats[3]);
+                    reported = true;
+                } else if (line.startsWith(CACHE)) {
+                    problems.add("writer " + w + " cache: " + line.substring(CACHE.length()));
+                } else {
+                    System.out.println("[writer " + w + "] " + line);
+                }
+            }
+            if (!reported) problems.add("writer " + w + " did not finish");
+        }
+        if (failed > 0) problems.add(failed + " writes failed");
+
+        DataManager dataManager = new DataManager(dbUrl);
+        Set<Long> present = new HashSet<>();
+        for (Attempt attempt : dataManager.getAttempts()) present.add(attempt.getId());
+        for (long id : kept) {
+            if (!present.contains(id)) problems.add("kept attempt missing: " + id);
+        }
+        for (long id : gone) {
+            if (present.contains(id)) problems.add("deleted attempt still there: " + id);
+        }
+        for (long id : won) {
+            if (present.contains(id)) problems.add("shared attempt still there: " + id);
+        }
+
+        // Summaries kept by the writers against the same summaries computed afresh
+        String incremental = summaryText(dataManager);
+        dataManager.rebuildSummaries();
+        if (!incremental.equals(summaryText(dataManager))) problems.add("summary tables differ from a rebuild");
+
+        Set<Long> replayed = new HashSet<>(seeded);
+        ChangeSet changes = dataManager.getChangesSince(firstChange, Integer.MAX_VALUE);
+        if (changes == null) {
+            problems.add("change journal could not be read");
+        } else {
+            for (DataChangeEvent change : changes.getChanges()) {
+                if (change.getEntity() != DataChangeEvent.Entity.ATTEMPT) continue;
+                if (change.getType() == DataChangeEvent.Type.INSERT) replayed.add(change.getAttemptId());
+                else replayed.remove(change.getAttemptId());
+            }
+        }
+        if (changes != null && !replayed.equals(present)) problems.add("change journal does not replay to the final attempts");
+        dataManager.close();
+
+        System.out.printf(Locale.ROOT, "%-8d %10d %10.1f %10d %10d %10d  %s%n", writers, writes,
+                (double) writes / seconds, retries, busy, failed, problems.isEmpty() ? "OK" : "FAILED");
+        for (String problem : problems.subList(0, Math.min(problems.size(), 20))) {
+            System.out.println("    " + problem);
+        }
+        return problems.isEmpty();
+    }
+
+    private static String summaryText(DataManager dataManager) {
+        StringBuilder text = new StringBuilder();
+        List<SummaryRow> rows = new ArrayList<>(dataManager.batchSummary());
+        rows.addAll(dataManager.semesterSummary());
+        for (SummaryRow row : rows) {
+            AttemptStats stats = row.getStats();
+            text.append(row.getKey()).append(' ').append(row.getStudents()).append(' ').append(stats.getAttempts())
+                    .append(' ').append(stats.getPassed()).append(' ').append(stats.getElite())
+                    .append(' ').append(stats.getScoreSum()).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static void readLines(Process process, List<String> output) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) output.add(line);
+        } catch (IOException e) {
+            output.add(e.getMessage());
+        }
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    // --- Writer ---
+
+    /**
+     * One writer process: a mix of writes until the time is up, then its results on
+     * stdout. Writes that are expected to succeed but do not are counted as failed.
+     * Writer 0 writes through a CachingDataManager, and afterwards checks its cache.
+     */
+    private static void writer(String dbUrl, int number, long seconds, long startAt) throws InterruptedException, IOException {
+        DataManager dataManager = number == 0 ? new CachingDataManager(dbUrl) : new DataManager(dbUrl);
+        DatasetGenerator generator = new DatasetGenerator(1000 + number);
+        Random random = new Random(number);
+        List<Student> students = new ArrayList<>();
+        List<Attempt> own = new ArrayList<>();
+        List<Attempt> shared = dataManager.getAttemptsForStudent(SHARED_STUDENT);
+        // Losing a race drops the cache, so the cached writer leaves these to the others
+        if (dataManager instanceof CachingDataManager) shared.clear();
+        Collections.shuffle(shared, random);
+        long writes = 0, failed = 0;
+
+        // All writers share the same window, however long each took to start
+        Thread.sleep(Math.max(0, startAt - System.currentTimeMillis()));
+        long end = startAt + seconds * 1000;
+        while (System.currentTimeMillis() < end) {
+            int roll = random.nextInt(100);
+            boolean ok;
+            if (students.isEmpty() || roll < 10) {
+                // Ids of their own, so writers never collide on a student
+                Student student = generator.nextStudent();
+                student.setId("W" + number + "-" + students.size());
+                ok = dataManager.addStudent(student);
+                if (ok) students.add(student);
+            } else if (roll < 50) {
+                Attempt attempt = generator.nextAttempt(students.get(random.nextInt(students.size())));
+                ok = dataManager.addAttempt(attempt);
+                if (ok) own.add(attempt);
+            } else if (roll < 65) {
+                List<Attempt> batch = new ArrayList<>();
+                for (int i = 0; i < BATCH_ROWS; i++) {
+                    batch.add(generator.nextAttempt(students.get(random.nextInt(students.size()))));
+                }
+                ok = dataManager.addAttempts(batch).isSuccessful();
+                if (ok) own.addAll(batch);
+            } else if (roll < 80 && !own.isEmpty()) {
+                Attempt attempt = own.remove(random.nextInt(own.size()));
+                ok = dataManager.deleteAttempt(attempt);
+                System.out.println((ok ? GONE : KEPT) + attempt.getId());
+            } else if (!shared.isEmpty()) {
+                // Losing the race to another writer is expected, not a failure
+                Attempt attempt = shared.remove(shared.size() - 1);
+                if (dataManager.deleteAttempt(attempt)) System.out.println(WON + attempt.getId());
+                ok = true;
+            } else {
+                continue;
+            }
+            writes++;
+            if (!ok) failed++;
+        }
+
+        for (Attempt attempt : own) System.out.println(KEPT + attempt.getId());
+        System.out.println(STATS + writes + " " + failed + " " + dataManager.getWriteRetryCount()
+                + " " + dataManager.getBusyFailureCount());
+        if (dataManager instanceof CachingDataManager) {
+            // Wait for the parent to say every other writer has stopped
+            System.in.read();
+            checkCache((CachingDataManager) dataManager, dbUrl);
+        }
+        dataManager.close();
+    }
+
+    /**
+     * Catches the cache up with the others' writes, as saving a snapshot does, and
+     * compares what it then holds with the database.
+     */
+    private static void checkCache(CachingDataManager cache, String dbUrl) {
+        cache.saveSnapshot();
+        DataManager database = new DataManager(dbUrl);
+        Set<String> cachedStudents = new HashSet<>();
+        for (Student student : cache.getStudents()) cachedStudents.add(student.getId());
+        Set<String> students = new HashSet<>();
+        for (Student student : database.getStudents()) students.add(student.getId());
+        Set<Long> cachedAttempts = new HashSet<>();
+        for (Attempt attempt : cache.getAttempts()) cachedAttempts.add(attempt.getId());
+        Set<Long> attempts = new HashSet<>();
+        for (Attempt attempt : database.getAttempts()) attempts.add(attempt.getId());
+        database.close();
+
+        if (!cachedStudents.equals(students)) {
+            System.out.println(CACHE + cachedStudents.size() + " students, database has " + students.size());
+        }
+        if (!cachedAttempts.equals(attempts)) {
+            System.out.println(CACHE + cachedAttempts.size() + " attempts, database has " + attempts.size());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Writes students or attempts to a CSV file straight from the database. Rows are
+ * streamed through a buffered writer as DataManager reads them, so an export never
+ * needs the data loaded into a table first. Meant to run off the EDT; it reports
+ * progress as it goes and stops early when asked to cancel.
+ */
+public class CsvExporter {
+
+    public interface ProgressListener {
+        void progress(long rowsWritten, long totalRows);
+    }
+
+    private static final String[] STUDENT_COLUMNS = {"Student ID", "Name", "Email", "Batch", "Department", "Semester"};
+    private static final String[] ATTEMPT_COLUMNS = {"Student ID", "NPTEL ID", "Course", "Date", "Score", "Semester", "Status"};
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final DataManager dataManager;
+
+    public CsvExporter(DataManager dataManager) {
+        this.dataManager = dataManager;
+    }
+
+    /**
+     * @return the number of students written, or -1 if cancelled (the partial file is deleted)
+     */
+    public long exportStudents(Path file, ProgressListener progress, BooleanSupplier cancelled) throws IOException {
+        long total = dataManager.countStudents();
+        long[] written = {0};
+        IOException[] failure = {null};
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeRow(writer, (Object[]) STUDENT_COLUMNS);
+            dataManager.forEachStudent(s -> {
+                if (cancelled.getAsBoolean()) return false;
+                try {
+                    writeRow(writer, s.getId(), s.getName(), s.getEmail(), s.getBatch(), s.getDepartment(), s.getCurrentSemester());
+                } catch (IOException e) {
+                    failure[0] = e;
+                    return false;
+                }
+                reportProgress(progress, ++written[0], total);
+                return true;
+            });
+        }
+        return finish(file, failure[0], cancelled, written[0], total, progress);
+    }
+
+    /**
+     * @return the number of attempts written, or -1 if cancelled (the partial file is deleted)
+     */
+    public long exportAttempts(Path file, AttemptFilter filter, ProgressListener progress, BooleanSupplier cancelled) throws IOException {
+        long total = dataManager.countAttempts(filter);
+        long[] written = {0};
+        IOException[] failure = {null};
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeRow(writer, (Object[]) ATTEMPT_COLUMNS);
+            dataManager.forEachAttempt(filter, row -> {
+                if (cancelled.getAsBoolean()) return false;
+                Attempt a = row.getAttempt();
+                try {
+                    writeRow(writer, a.getStudentId(), a.getNptelId(), a.getCourseName(), a.getExamDate(), a.getScore(), a.getSemester(), a.getStatus());
+                } catch (IOException e) {
+                    failure[0] = e;
+                    return false;
+                }
+                reportProgress(progress, ++written[0], total);
+                return true;
+            });
+        }
+        return finish(file, failure[0], cancelled, written[0], total, progress);
+    }
+
+    private long finish(Path file, IOException failure, BooleanSupplier cancelled, long written, long total,
+                        ProgressListener progress) throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (cancelled.getAsBoolean()) {
+            Files.deleteIfExists(file);
+            return -1;
+        }
+        progress.progress(written, Math.max(written, total));
+        return written;
+    }
+
+    private static void reportProgress(ProgressListener progress, long written, long total) {
+        if (written % PROGRESS_INTERVAL == 0) {
+            progress.progress(written, total);
+        }
+    }
+
+    // --- CSV Formatting ---
+
+    static void writeRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writeField(writer, values[i] == null ? "" : values[i].toString());
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Writes one field, with line breaks turned into spaces and the field quoted when it
+     * contains a comma or a quote. Plain character checks rather than a regex; values with
+     * nothing to escape are copied as is.
+     */
+    private static void writeField(Writer writer, String data) throws IOException {
+        boolean quote = false;
+        boolean lineBreak = false;
+        for (int i = 0; i < data.length(); i++) {
+            char c = data.charAt(i);
+            quote |= c == ',' || c == '"' || c == '\'';
+            lineBreak |= isLineBreak(c);
+        }
+        if (!quote && !lineBreak) {
+            writer.write(data); // The common case: copy the value as is
+            return;
+        }
+
+        if (quote) writer.write('"');
+        for (int i = 0; i < data.length(); i++) {
+            char c = data.charAt(i);
+            if (c == '\r' && i + 1 < data.length() && data.charAt(i + 1) == '\n') {
+                writer.write(' '); // CRLF is one break
+                i++;
+            } else if (isLineBreak(c)) {
+                writer.write(' ');
+            } else if (c == '"') {
+                writer.write("\"\"");
+            } else {
+                writer.write(c);
+            }
+        }
+        if (quote) writer.write('"');
+    }
+
+    private static boolean isLineBreak(char c) {
+        return c == '\n' || c == '\r' || c == '\u000B' || c == '\f' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+/**
+ * Describes one row written to or removed from the database by DataManager.
+ * Inserts carry the new Student or Attempt; deletes carry only the id (a student's
+ * text id or an attempt's numeric one). Deleting a student also removes their
+ * attempts, which is not reported separately.
+ */
+public class DataChangeEvent {
+    public enum Type { INSERT, DELETE }
+    public enum Entity { STUDENT, ATTEMPT }
+
+    private final Type type;
+    private final Entity entity;
+    private final String studentId;
+    private final long attemptId;
+    private final Object row;
+
+    private DataChangeEvent(Type type, Entity entity, String studentId, long attemptId, Object row) {
+        this.type = type;
+        this.entity = entity;
+        this.studentId = studentId;
+        this.attemptId = attemptId;
+        this.row = row;
+    }
+
+    public static DataChangeEvent studentInserted(Student student) {
+        return new DataChangeEvent(Type.INSERT, Entity.STUDENT, student.getId(), 0, student);
+    }
+
+    public static DataChangeEvent studentDeleted(String studentId) {
+        return new DataChangeEvent(Type.DELETE, Entity.STUDENT, studentId, 0, null);
+    }
+
+    public static DataChangeEvent attemptInserted(Attempt attempt) {
+        return new DataChangeEvent(Type.INSERT, Entity.ATTEMPT, null, attempt.getId(), attempt);
+    }
+
+    public static DataChangeEvent attemptDeleted(long attemptId) {
+        return new DataChangeEvent(Type.DELETE, Entity.ATTEMPT, null, attemptId, null);
+    }
+
+    // Getters
+    public Type getType() { return type; }
+    public Entity getEntity() { return entity; }
+    /** @return the id of the student inserted or deleted, or null for attempt events */
+    public String getStudentId() { return studentId; }
+    /** @return the id of the attempt inserted or deleted, or 0 for student events */
+    public long getAttemptId() { return attemptId; }
+    /** @return the inserted Student, or null for other events */
+    public Student getStudent() { return entity == Entity.STUDENT ? (Student) row : null; }
+    /** @return the inserted Attempt, or null for other events */
+    public Attempt getAttempt() { return entity == Entity.ATTEMPT ? (Attempt) row : null; }
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+/**
+ * Notified by DataManager after each successful insert or delete. Called on the
+ * thread that made the change, while DataManager is still locked, so listeners
+ * should only record the change or hand it off (e.g. with SwingUtilities.invokeLater).
+ */
+public interface DataChangeListener {
+    void dataChanged(DataChangeEvent event);
+}
\ No newline at end of file
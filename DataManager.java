@@ -1,219 +1,1509 @@
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 
 public class DataManager {
 
     private static final String DB_URL = "jdbc:sqlite:nptel_tracker.db";
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int SQLITE_BUSY = 5;
+    private static final int SQLITE_LOCKED = 6;
+    // How long a statement waits for another connection's lock before failing with
+    // SQLITE_BUSY; set with the nptel.busyTimeoutMillis property
+    private static final int DEFAULT_BUSY_TIMEOUT_MILLIS = 5000;
+    // A write transaction that still fails with SQLITE_BUSY is retried, waiting up to
+    // RETRY_BASE_MILLIS, then twice that and so on, up to MAX_WRITE_ATTEMPTS in all
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+    private static final long RETRY_BASE_MILLIS = 25;
+    // Pool bounds: columns with a handful of values, and columns with one value per student or course
+    private static final int SMALL_POOL = 1024;
+    private static final int LARGE_POOL = 1 << 18;
+
+    private static final String ATTEMPT_ROW_SELECT = "SELECT a.rowid AS rowKey, a.id, a.studentId, a.nptelId,"
+            + " a.courseName, a.examDate, a.score, a.semester, a.status,"
+            + " s.name AS studentName, s.batch AS studentBatch"
+            + " FROM ATTEMPTS a LEFT JOIN STUDENTS s ON s.id = a.studentId";
+
+    // Pass / elite / score totals over the joined "a" rows; matches AttemptStats.add()
+    private static final String ATTEMPT_TOTALS = "COUNT(a.id) AS attempts,"
+            + " COALESCE(SUM((a.status & " + Status.PASSED_FLAG + ") > 0), 0) AS passed,"
+            + " COALESCE(SUM((a.status & " + Status.ELITE_FLAG + ") > 0), 0) AS elite,"
+            + " COALESCE(SUM(a.score), 0) AS scoreSum";
+
+    // The "a" row's exam date (an epoch day) as a time value strftime understands
+    private static final String EXAM_DATE_UNIX = "a.examDate * 86400, 'unixepoch'";
+
+    private final String dbUrl;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private int busyTimeoutMillis = Integer.getInteger("nptel.busyTimeoutMillis", DEFAULT_BUSY_TIMEOUT_MILLIS);
+
+    // One long-lived connection plus the statements prepared on it, keyed by their SQL.
+    // All access goes through synchronized methods, so a single connection is safe to share.
+    private Connection connection;
+    private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+
+    private final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Statements that have failed so far, and how many of them because another
+    // connection held the database lock (SQLITE_BUSY / SQLITE_LOCKED)
+    private final LongAdder failedStatements = new LongAdder();
+    private final LongAdder busyFailures = new LongAdder();
+    private final LongAdder writeRetries = new LongAdder();
+
+    // Change journal entries written by the transaction in progress; see journalCommitted
+    private long journalFirst, journalLast;
+
+    // Timings for every public method below; lastSql is the statement most recently
+    // prepared, which the slow call log shows
+    private final Metrics metrics = Metrics.get();
+    private String lastSql;
+
+    // Rows read from the database share one instance per repeated value instead of each
+    // holding the driver's fresh copy; most of a loaded attempt's fields repeat across
+    // thousands of rows. Student ids and names are pooled too, so an attempt's student
+    // id and a joined row's student name are the same objects the Student holds. An
+    // attempt's semester and status need no pool: they are enum constants.
+    private final InternPool<String> studentIds = new InternPool<>(LARGE_POOL);
+    private final InternPool<String> studentNames = new InternPool<>(LARGE_POOL);
+    private final InternPool<String> nptelIds = new InternPool<>(LARGE_POOL);
+    private final InternPool<String> courseNames = new InternPool<>(LARGE_POOL);
+    private final InternPool<String> currentSemesters = new InternPool<>(SMALL_POOL);
+    private final InternPool<String> batches = new InternPool<>(SMALL_POOL);
+    private final InternPool<String> departments = new InternPool<>(SMALL_POOL);
+    private final InternPool<LocalDate> examDates = new InternPool<>(LARGE_POOL);
 
     public DataManager() {
+        this(DB_URL);
+    }
+
+    public DataManager(String dbUrl) {
+        this.dbUrl = dbUrl;
         // When DataManager is created, it initializes the database.
         initializeDatabase();
     }
 
     /**
-     * Creates a connection to the SQLite database.
+     * Returns the shared connection to the SQLite database, opening and tuning it on first use.
      * @return a Connection object
      */
-    private Connection connect() {
-        Connection conn = null;
+    private synchronized Connection connect() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            long start = System.nanoTime();
+            connection = DriverManager.getConnection(dbUrl);
+            statementCache.clear();
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+                // WAL lets readers proceed while a write is in progress and avoids
+                // rewriting the main file on every commit.
+                stmt.execute("PRAGMA journal_mode = WAL");
+                stmt.execute("PRAGMA synchronous = NORMAL");
+                stmt.execute("PRAGMA temp_store = MEMORY");
+                stmt.execute("PRAGMA cache_size = -16000"); // ~16 MB page cache
+                // Off by default in SQLite; without it ON DELETE CASCADE never fires
+                stmt.execute("PRAGMA foreign_keys = ON");
+            }
+            metrics.record("connect", start, 0, dbUrl);
+        }
+        return connection;
+    }
+
+    /**
+     * Returns a cached PreparedStatement for the given SQL, preparing it on first use.
+     * @param sql the statement text, also used as the cache key
+     * @return a PreparedStatement with its parameters cleared
+     */
+    private synchronized PreparedStatement prepare(String sql) throws SQLException {
+        lastSql = sql;
+        PreparedStatement pstmt = statementCache.get(sql);
+        if (pstmt == null || pstmt.isClosed()) {
+            pstmt = connect().prepareStatement(sql);
+            statementCache.put(sql, pstmt);
+        } else {
+            pstmt.clearParameters();
+        }
+        return pstmt;
+    }
+
+    public void addDataChangeListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeDataChangeListener(DataChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public long getFailedStatementCount() {
+        return failedStatements.sum();
+    }
+
+    public long getBusyFailureCount() {
+        return busyFailures.sum();
+    }
+
+    /** @return how many times a write transaction was retried after SQLITE_BUSY */
+    public long getWriteRetryCount() {
+        return writeRetries.sum();
+    }
+
+    /**
+     * Sets how long a statement waits for another connection to release the database
+     * before failing with SQLITE_BUSY. Applies to the current connection at once.
+     */
+    public synchronized void setBusyTimeout(int millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Busy timeout cannot be negative");
+        }
+        busyTimeoutMillis = millis;
+        if (connection != null) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA busy_timeout = " + millis);
+            } catch (SQLException e) {
+                reportError(e);
+            }
+        }
+    }
+
+    /**
+     * Logs a failed statement and counts it.
+     */
+    private void reportError(SQLException e) {
+        System.err.println(e.getMessage());
+        countError(e);
+    }
+
+    private void countError(SQLException e) {
+        failedStatements.increment();
+        boolean busy = isBusy(e);
+        if (busy) {
+            busyFailures.increment();
+        }
+        metrics.recordFailure(busy);
+    }
+
+    /** @return true if another connection held the lock, so trying again may succeed */
+    private static boolean isBusy(SQLException e) {
+        // The low byte is the primary result code, also for extended codes like SQLITE_BUSY_SNAPSHOT
+        int code = e.getErrorCode() & 0xff;
+        return code == SQLITE_BUSY || code == SQLITE_LOCKED;
+    }
+
+    /**
+     * Records a call to one of the public methods, started at {@code startNanos}.
+     */
+    private void recordCall(String method, long startNanos, long rows) {
+        metrics.record(method, startNanos, rows, lastSql);
+    }
+
+    private void fireDataChanged(DataChangeEvent event) {
+        for (DataChangeListener listener : listeners) {
+            listener.dataChanged(event);
+        }
+    }
+
+    /**
+     * Sets how many rows the bulk write methods send to SQLite per JDBC batch.
+     * @param batchSize rows per batch, at least 1
+     */
+    public synchronized void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public synchronized int getBatchSize() {
+        return batchSize;
+    }
+
+    public String getDbUrl() {
+        return dbUrl;
+    }
+
+    /**
+     * Closes the cached statements and the shared connection.
+     */
+    public synchronized void close() {
         try {
-            conn = DriverManager.getConnection(DB_URL);
+            for (PreparedStatement pstmt : statementCache.values()) {
+                pstmt.close();
+            }
+            statementCache.clear();
+            if (connection != null) {
+                connection.close();
+                connection = null;
+            }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            reportError(e);
         }
-        return conn;
     }
 
     /**
-     * Creates the STUDENTS and ATTEMPTS tables if they don't exist.
+     * Creates or upgrades the STUDENTS and ATTEMPTS tables and their indexes.
+     * @throws IllegalStateException if the database cannot be opened or upgraded; every
+     * method would fail against a schema left half way, so nothing is worth running
      */
     private void initializeDatabase() {
-        // SQL for creating the students table
-        String sqlStudents = "CREATE TABLE IF NOT EXISTS STUDENTS ("
-                + " id TEXT PRIMARY KEY NOT NULL,"
-                + " name TEXT NOT NULL,"
-                + " email TEXT,"
-                + " batch TEXT,"
-                + " department TEXT,"
-                + " currentSemester TEXT"
-                + ");";
-        
-        // SQL for creating the attempts table
-        String sqlAttempts = "CREATE TABLE IF NOT EXISTS ATTEMPTS ("
-                + " id TEXT PRIMARY KEY NOT NULL,"
-                + " studentId TEXT NOT NULL,"
-                + " nptelId TEXT,"
-                + " courseName TEXT,"
-                + " examDate TEXT," // Store as TEXT in YYYY-MM-DD format
-                + " score INTEGER,"
-                + " semester TEXT,"
-                + " status TEXT,"
-                + " FOREIGN KEY (studentId) REFERENCES STUDENTS (id) ON DELETE CASCADE"
-                + ");";
-
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement()) {
-            // Execute both table creation statements
-            stmt.execute(sqlStudents);
-            stmt.execute(sqlAttempts);
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
+        try {
+            new SchemaMigrator().migrate(connect());
+        } catch (SQLException e) {
+            reportError(e);
+            close();
+            throw new IllegalStateException("Could not open " + dbUrl + ": " + e.getMessage(), e);
+        }
+        claimIdNode();
+    }
+
+    /**
+     * Takes the database's next attempt id node for this process, so attempts added
+     * by several processes at once cannot get the same id. One statement, so two
+     * processes starting together still get different nodes.
+     */
+    private synchronized void claimIdNode() {
+        String sql = "UPDATE ID_NODE SET next = (next + 1) % " + AttemptIdGenerator.NODES + " RETURNING next";
+        try (Statement stmt = connect().createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next()) {
+                // The node before the one left for the next process
+                AttemptIdGenerator.useNode((rs.getInt(1) + AttemptIdGenerator.NODES - 1) % AttemptIdGenerator.NODES);
+            }
+        } catch (SQLException e) {
+            reportError(e); // Keeps the random node
         }
     }
 
     // --- Student Methods (Now with SQL) ---
 
-    public List<Student> getStudents() {
-        String sql = "SELECT * FROM STUDENTS";
+    public synchronized List<Student> getStudents() {
+        long start = System.nanoTime();
+        String sql = "SELECT id, name, email, batch, department, currentSemester FROM STUDENTS";
         List<Student> students = new ArrayList<>();
 
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
+        try (ResultSet rs = prepare(sql).executeQuery()) {
             while (rs.next()) {
-                Student student = new Student(
-                        rs.getString("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("batch"),
-                        rs.getString("department"),
-                        rs.getString("currentSemester")
-                );
-                students.add(student);
+                students.add(readStudent(rs));
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            reportError(e);
         }
+        recordCall("getStudents", start, students.size());
         return students;
     }
 
-    public Optional<Student> findStudentById(String id) {
-        String sql = "SELECT * FROM STUDENTS WHERE id = ?";
-        
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, id);
-            ResultSet rs = pstmt.executeQuery();
+    public synchronized Optional<Student> findStudentById(String id) {
+        long start = System.nanoTime();
+        String sql = "SELECT id, name, email, batch, department, currentSemester FROM STUDENTS WHERE id = ?";
+        Optional<Student> found = Optional.empty();
 
-            if (rs.next()) {
-                Student student = new Student(
-                        rs.getString("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("batch"),
-                        rs.getString("department"),
-                        rs.getString("currentSemester")
-                );
-                return Optional.of(student);
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            pstmt.setString(1, id);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    found = Optional.of(readStudent(rs));
+                }
             }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            reportError(e);
         }
-        return Optional.empty();
+        recordCall("findStudentById", start, found.isPresent() ? 1 : 0);
+        return found;
     }
 
-    public boolean addStudent(Student student) {
-        if (findStudentById(student.getId()).isPresent()) {
-            return false; // Student ID already exists
-        }
+    public synchronized boolean addStudent(Student student) {
+        long start = System.nanoTime();
+        // OR IGNORE turns a duplicate ID into "0 rows changed" instead of a separate lookup
+        String sql = "INSERT OR IGNORE INTO STUDENTS(id, name, email, batch, department, currentSemester) VALUES(?,?,?,?,?,?)";
 
-        String sql = "INSERT INTO STUDENTS(id, name, email, batch, department, currentSemester) VALUES(?,?,?,?,?,?)";
-
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, student.getId());
-            pstmt.setString(2, student.getName());
-            pstmt.setString(3, student.getEmail());
-            pstmt.setString(4, student.getBatch());
-            pstmt.setString(5, student.getDepartment());
-            pstmt.setString(6, student.getCurrentSemester());
-            pstmt.executeUpdate();
-            return true;
+        try {
+            boolean inserted = inTransaction(() -> {
+                PreparedStatement pstmt = prepare(sql);
+                pstmt.setString(1, student.getId());
+                pstmt.setString(2, student.getName());
+                pstmt.setString(3, student.getEmail());
+                pstmt.setString(4, student.getBatch());
+                pstmt.setString(5, student.getDepartment());
+                pstmt.setString(6, student.getCurrentSemester());
+                if (pstmt.executeUpdate() == 0) {
+                    return false;
+                }
+                SummaryDelta delta = new SummaryDelta();
+                delta.student(student.getBatch(), 1);
+                applyWrite(delta, List.of(DataChangeEvent.studentInserted(student)));
+                return true;
+            });
+            recordCall("addStudent", start, inserted ? 1 : 0);
+            if (!inserted) {
+                return false;
+            }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            reportError(e);
+            recordCall("addStudent", start, 0);
             return false;
         }
+        fireDataChanged(DataChangeEvent.studentInserted(student));
+        return true;
     }
 
-    public void deleteStudent(String studentId) {
+    /**
+     * Deletes the student and their attempts.
+     * @return true if there was such a student
+     */
+    public synchronized boolean deleteStudent(String studentId) {
+        return deleteStudent(studentId, null);
+    }
+
+    /**
+     * Deletes the student and their attempts only if the student's row still holds what
+     * {@code expected} does, so a student changed or re-added by someone else since
+     * {@code expected} was read is left alone.
+     * @return true if deleted; false if the student is gone or no longer matches
+     */
+    public synchronized boolean deleteStudent(Student expected) {
+        return deleteStudent(expected.getId(), expected);
+    }
+
+    private boolean deleteStudent(String studentId, Student expected) {
+        long start = System.nanoTime();
         // Because of "ON DELETE CASCADE" in the table definition,
         // deleting a student will automatically delete their attempts.
         String sql = "DELETE FROM STUDENTS WHERE id = ?";
+        boolean deleted = false;
+
+        try {
+            // The check and the delete share one write transaction, so nobody can
+            // change the row in between
+            deleted = inTransaction(() -> {
+                Student current = findStudent(studentId);
+                if (current == null || (expected != null && !sameStudent(current, expected))) {
+                    return false;
+                }
+                String batch = current.getBatch();
 
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, studentId);
-            pstmt.executeUpdate();
+                // Take their attempts out of the summaries before the cascade removes them
+                SummaryDelta delta = new SummaryDelta();
+                PreparedStatement attempts = prepare("SELECT semester, status, score FROM ATTEMPTS WHERE studentId = ?");
+                attempts.setString(1, studentId);
+                try (ResultSet rs = attempts.executeQuery()) {
+                    while (rs.next()) {
+                        delta.attempt(batch, studentId, readSemester(rs), readStatus(rs), rs.getInt("score"), -1);
+                    }
+                }
+                delta.student(batch, -1);
+
+                PreparedStatement pstmt = prepare(sql);
+                pstmt.setString(1, studentId);
+                pstmt.executeUpdate();
+                applyWrite(delta, List.of(DataChangeEvent.studentDeleted(studentId)));
+                return true;
+            });
+            if (deleted) {
+                fireDataChanged(DataChangeEvent.studentDeleted(studentId));
+            }
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            reportError(e);
         }
+        recordCall("deleteStudent", start, deleted ? 1 : 0);
+        return deleted;
     }
 
     // --- Attempt Methods (Now with SQL) ---
 
-    public List<Attempt> getAttempts() {
-        String sql = "SELECT * FROM ATTEMPTS";
+    public synchronized List<Attempt> getAttempts() {
+        long start = System.nanoTime();
+        String sql = "SELECT id, studentId, nptelId, courseName, examDate, score, semester, status FROM ATTEMPTS";
         List<Attempt> attempts = new ArrayList<>();
 
-        try (Connection conn = connect();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
+        try (ResultSet rs = prepare(sql).executeQuery()) {
             while (rs.next()) {
-                // --- CORRECTION ---
-                // Use the new constructor to load the *actual* DB id
-                Attempt attempt = new Attempt(
-                        rs.getString("id"), // Pass the ID from the database
-                        rs.getString("studentId"),
-                        rs.getString("nptelId"),
-                        rs.getString("courseName"),
-                        LocalDate.parse(rs.getString("examDate")), // Convert text back to LocalDate
-                        rs.getInt("score"),
-                        rs.getString("semester"),
-                        rs.getString("status")
-                );
-                attempts.add(attempt);
-                // ------------------
-            }
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
+                attempts.add(readAttempt(rs));
+            }
+        } catch (SQLException e) {
+            reportError(e);
         }
+        recordCall("getAttempts", start, attempts.size());
         return attempts;
     }
 
-    public void addAttempt(Attempt attempt) {
+    public synchronized boolean addAttempt(Attempt attempt) {
+        long start = System.nanoTime();
         String sql = "INSERT INTO ATTEMPTS(id, studentId, nptelId, courseName, examDate, score, semester, status) VALUES(?,?,?,?,?,?,?,?)";
 
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, attempt.getId()); // Use the ID from the Attempt object
+        try {
+            inTransaction(() -> {
+                PreparedStatement pstmt = prepare(sql);
+                pstmt.setLong(1, attempt.getId()); // Use the ID from the Attempt object
+                pstmt.setString(2, attempt.getStudentId());
+                pstmt.setString(3, attempt.getNptelId());
+                pstmt.setString(4, attempt.getCourseName());
+                bindExamDate(pstmt, 5, attempt.getExamDate());
+                pstmt.setInt(6, attempt.getScore());
+                bindSemester(pstmt, 7, attempt.getSemester());
+                bindStatus(pstmt, 8, attempt.getStatus());
+                pstmt.executeUpdate();
+                applySummaries(List.of(attempt), 1);
+                return null;
+            });
+        } catch (SQLException e) {
+            reportError(e);
+            recordCall("addAttempt", start, 0);
+            return false;
+        }
+        recordCall("addAttempt", start, 1);
+        fireDataChanged(DataChangeEvent.attemptInserted(attempt));
+        return true;
+    }
+
+    /**
+     * @return true if there was such an attempt
+     */
+    public synchronized boolean deleteAttempt(long attemptId) {
+        return deleteAttempt(attemptId, null);
+    }
+
+    /**
+     * Deletes the attempt only if its row still holds what {@code expected} does.
+     * @return true if deleted; false if the attempt is gone or no longer matches
+     */
+    public synchronized boolean deleteAttempt(Attempt expected) {
+        return deleteAttempt(expected.getId(), expected);
+    }
+
+    private boolean deleteAttempt(long attemptId, Attempt expected) {
+        long start = System.nanoTime();
+        String sql = "DELETE FROM ATTEMPTS WHERE id = ?";
+        boolean deleted = false;
+
+        try {
+            deleted = inTransaction(() -> {
+                Attempt attempt = findAttempt(attemptId);
+                if (attempt == null || (expected != null && !sameAttempt(attempt, expected))) {
+                    return false;
+                }
+                PreparedStatement pstmt = prepare(sql);
+                pstmt.setLong(1, attemptId);
+                pstmt.executeUpdate();
+                applySummaries(List.of(attempt), -1);
+                return true;
+            });
+            if (deleted) {
+                fireDataChanged(DataChangeEvent.attemptDeleted(attemptId));
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("deleteAttempt", start, deleted ? 1 : 0);
+        return deleted;
+    }
+
+    private static boolean sameStudent(Student a, Student b) {
+        return Objects.equals(a.getId(), b.getId()) && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getEmail(), b.getEmail()) && Objects.equals(a.getBatch(), b.getBatch())
+                && Objects.equals(a.getDepartment(), b.getDepartment())
+                && Objects.equals(a.getCurrentSemester(), b.getCurrentSemester());
+    }
+
+    private static boolean sameAttempt(Attempt a, Attempt b) {
+        return a.getId() == b.getId() && Objects.equals(a.getStudentId(), b.getStudentId())
+                && Objects.equals(a.getNptelId(), b.getNptelId()) && Objects.equals(a.getCourseName(), b.getCourseName())
+                && Objects.equals(a.getExamDate(), b.getExamDate()) && a.getScore() == b.getScore()
+                && a.getSemester() == b.getSemester() && a.getStatus() == b.getStatus();
+    }
+
+    private Student findStudent(String studentId) throws SQLException {
+        String sql = "SELECT id, name, email, batch, department, currentSemester FROM STUDENTS WHERE id = ?";
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setString(1, studentId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? readStudent(rs) : null;
+        }
+    }
+
+    private Attempt findAttempt(long attemptId) throws SQLException {
+        String sql = "SELECT id, studentId, nptelId, courseName, examDate, score, semester, status FROM ATTEMPTS WHERE id = ?";
+        PreparedStatement pstmt = prepare(sql);
+        pstmt.setLong(1, attemptId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? readAttempt(rs) : null;
+        }
+    }
+
+    private String studentBatch(String studentId) throws SQLException {
+        PreparedStatement pstmt = prepare("SELECT batch FROM STUDENTS WHERE id = ?");
+        pstmt.setString(1, studentId);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) the attempts' totals in the summary tables,
+     * looking each student's batch up once, and journals the inserts or deletes.
+     */
+    private void applySummaries(List<Attempt> attempts, int sign) throws SQLException {
+        SummaryDelta delta = new SummaryDelta();
+        Map<String, String> batches = new HashMap<>();
+        List<DataChangeEvent> changes = new ArrayList<>(attempts.size());
+        for (Attempt attempt : attempts) {
+            changes.add(sign > 0 ? DataChangeEvent.attemptInserted(attempt) : DataChangeEvent.attemptDeleted(attempt.getId()));
+            String studentId = attempt.getStudentId();
+            if (!batches.containsKey(studentId)) {
+                batches.put(studentId, studentBatch(studentId));
+            }
+            delta.attempt(batches.get(studentId), studentId, attempt.getSemester(), attempt.getStatus(), attempt.getScore(), sign);
+        }
+        applyWrite(delta, changes);
+    }
+
+    /**
+     * The last step of every write transaction: updates the summary tables and appends
+     * the changes to the change journal (see {@link #getChangesSince(long, int)}).
+     */
+    private void applyWrite(SummaryDelta delta, List<DataChangeEvent> changes) throws SQLException {
+        delta.apply(this::prepare);
+        if (!changes.isEmpty()) {
+            PreparedStatement journal = prepare("INSERT INTO CHANGE_JOURNAL(type, entity, studentId, attemptId) VALUES(?,?,?,?)");
+            for (DataChangeEvent change : changes) {
+                journal.setString(1, change.getType().name());
+                journal.setString(2, change.getEntity().name());
+                journal.setString(3, change.getStudentId());
+                if (change.getEntity() == DataChangeEvent.Entity.ATTEMPT) {
+                    journal.setLong(4, change.getAttemptId());
+                } else {
+                    journal.setNull(4, Types.INTEGER);
+                }
+                journal.addBatch();
+            }
+            journal.executeBatch();
+            try (Statement stmt = connect().createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid()")) {
+                journalLast = rs.next() ? rs.getLong(1) : 0;
+            }
+            if (journalFirst == 0) {
+                // The transaction holds the write lock, so its entries are numbered in a row
+                journalFirst = journalLast - changes.size() + 1;
+            }
+        }
+    }
+
+    /**
+     * Called once a write transaction has committed, with the sequence numbers of the
+     * first and last change journal entries it wrote; every number between is its own.
+     */
+    protected void journalCommitted(long first, long last) {
+    }
+
+    private interface SqlWork<T> {
+        T run() throws SQLException;
+    }
+
+    /**
+     * Runs {@code work} in one write transaction. If the database stays locked by another
+     * connection past the busy timeout, the whole transaction is rolled back and tried
+     * again after a growing, randomised pause, so {@code work} must not depend on state
+     * left by an earlier try.
+     */
+    private <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return runTransaction(work);
+            } catch (SQLException e) {
+                if (!isBusy(e) || attempt == MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+                writeRetries.increment();
+                metrics.recordWriteRetry();
+                backOff(attempt, e);
+            }
+        }
+    }
+
+    private <T> T runTransaction(SqlWork<T> work) throws SQLException {
+        Connection conn = connect();
+        conn.setAutoCommit(false);
+        try {
+            // Bumping the data version (see dataVersion()) first makes the transaction
+            // take the write lock before it reads anything, waiting for it under the busy
+            // timeout. One that read first could find, when it came to write, that another
+            // connection had written since, and would fail at once with SQLITE_BUSY.
+            prepare("UPDATE DATA_VERSION SET version = version + 1").executeUpdate();
+            journalFirst = journalLast = 0;
+            long changesBefore = totalChanges();
+            T result = work.run();
+            // A write that changed nothing (a duplicate ignored, a refused delete) keeps
+            // the old version, so snapshots and API ETags stay valid
+            if (totalChanges() == changesBefore) {
+                conn.rollback();
+            } else {
+                conn.commit();
+                if (journalLast > 0) journalCommitted(journalFirst, journalLast);
+            }
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /** @return the rows inserted, updated or deleted on this connection since it opened */
+    private long totalChanges() throws SQLException {
+        // Not through prepare(), which would make this the statement the slow call log shows
+        try (Statement stmt = connect().createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT total_changes()")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static void backOff(int attempt, SQLException cause) throws SQLException {
+        long limit = RETRY_BASE_MILLIS << (attempt - 1);
+        try {
+            // Random within the upper half, so writers that collided do not retry in step
+            Thread.sleep(ThreadLocalRandom.current().nextLong(limit / 2, limit + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    // --- Query Methods ---
+
+    public synchronized List<Student> getStudentsInBatch(String batch) {
+        long start = System.nanoTime();
+        String sql = "SELECT id, name, email, batch, department, currentSemester FROM STUDENTS WHERE batch = ?";
+        List<Student> students = new ArrayList<>();
+
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            pstmt.setString(1, batch);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(readStudent(rs));
+                }
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("getStudentsInBatch", start, students.size());
+        return students;
+    }
+
+    public synchronized List<Attempt> getAttemptsForStudent(String studentId) {
+        long start = System.nanoTime();
+        List<Attempt> attempts = getAttemptsWhere("studentId", studentId);
+        recordCall("getAttemptsForStudent", start, attempts.size());
+        return attempts;
+    }
+
+    public synchronized List<Attempt> getAttemptsForSemester(Semester semester) {
+        long start = System.nanoTime();
+        List<Attempt> attempts = getAttemptsWhere("semester", semester.getNumber());
+        recordCall("getAttemptsForSemester", start, attempts.size());
+        return attempts;
+    }
+
+    private List<Attempt> getAttemptsWhere(String column, Object value) {
+        String sql = "SELECT id, studentId, nptelId, courseName, examDate, score, semester, status FROM ATTEMPTS"
+                + " WHERE " + column + " = ? ORDER BY rowid";
+        List<Attempt> attempts = new ArrayList<>();
+
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            pstmt.setObject(1, value);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    attempts.add(readAttempt(rs));
+                }
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        return attempts;
+    }
+
+    /**
+     * Returns the attempts matching the filter, joined with their student's name and batch,
+     * along with pass / elite / score totals over the same rows. Everything is answered by
+     * one parameterized ATTEMPTS JOIN STUDENTS query.
+     */
+    public synchronized AttemptQueryResult queryAttempts(AttemptFilter filter) {
+        long start = System.nanoTime();
+        List<Object> params = new ArrayList<>();
+        String sql = ATTEMPT_ROW_SELECT + whereClause(filter, params) + " ORDER BY a.rowid";
+
+        List<AttemptRow> rows = new ArrayList<>();
+        AttemptStats stats = new AttemptStats();
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    AttemptRow row = readAttemptRow(rs);
+                    rows.add(row);
+                    stats.add(row.getAttempt());
+                }
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("queryAttempts", start, rows.size());
+        return new AttemptQueryResult(rows, stats);
+    }
+
+    /**
+     * Returns one page of the attempts matching the filter, in rowid order. Pages are
+     * found by keyset: the page starts after {@code afterRowId}, skipping {@code offset}
+     * further rows, so a caller that remembers the last rowid of the previous page can
+     * always pass an offset of 0 and the query seeks straight to it.
+     */
+    public synchronized List<AttemptRow> queryAttemptsPage(AttemptFilter filter, long afterRowId, int offset, int limit) {
+        long start = System.nanoTime();
+        List<Object> params = new ArrayList<>();
+        String sql = ATTEMPT_ROW_SELECT + whereClause(filter, params)
+                + " AND a.rowid > ? ORDER BY a.rowid LIMIT ? OFFSET ?";
+        params.add(afterRowId);
+        params.add(limit);
+        params.add(offset);
+
+        List<AttemptRow> rows = new ArrayList<>(limit);
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(readAttemptRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("queryAttemptsPage", start, rows.size());
+        return rows;
+    }
+
+    /**
+     * Returns one page of the students, in id order, optionally only one batch's. Pages
+     * are found by keyset on the primary key: the page starts after {@code afterId}
+     * (null for the first page), so every page costs the same.
+     */
+    public synchronized List<Student> queryStudentsPage(String batch, String afterId, int limit) {
+        long start = System.nanoTime();
+        String sql = "SELECT id, name, email, batch, department, currentSemester FROM STUDENTS"
+                + " WHERE (? IS NULL OR batch = ?) AND id > ? ORDER BY id LIMIT ?";
+        List<Student> students = new ArrayList<>(limit);
+
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            pstmt.setString(1, batch);
+            pstmt.setString(2, batch);
+            pstmt.setString(3, afterId == null ? "" : afterId);
+            pstmt.setInt(4, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    students.add(readStudent(rs));
+                }
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("queryStudentsPage", start, students.size());
+        return students;
+    }
+
+    public synchronized long countAttempts(AttemptFilter filter) {
+        long start = System.nanoTime();
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT COUNT(*) FROM ATTEMPTS a LEFT JOIN STUDENTS s ON s.id = a.studentId" + whereClause(filter, params);
+        long count = 0;
+
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                count = rs.next() ? rs.getLong(1) : 0;
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("countAttempts", start, 1);
+        return count;
+    }
+
+    /**
+     * Pass / elite / score totals over the attempts matching the filter, without loading them.
+     */
+    public synchronized AttemptStats attemptStats(AttemptFilter filter) {
+        long start = System.nanoTime();
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + ATTEMPT_TOTALS
+                + " FROM ATTEMPTS a LEFT JOIN STUDENTS s ON s.id = a.studentId" + whereClause(filter, params);
+        AttemptStats stats = new AttemptStats();
+
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    stats = readAttemptStats(rs);
+                }
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("attemptStats", start, 1);
+        return stats;
+    }
+
+    /**
+     * Returns up to {@code limit} attempts matching the filter, best matches for its search
+     * text first as ranked by AttemptSearch, then newest first. Returns an empty list if
+     * {@code cancelled} turns true before the results are in.
+     */
+    public synchronized List<AttemptRow> searchAttempts(AttemptFilter filter, int limit, BooleanSupplier cancelled) {
+        long start = System.nanoTime();
+        List<Object> params = new ArrayList<>();
+        String sql = ATTEMPT_ROW_SELECT + whereClause(filter, params) + " ORDER BY ";
+        String text = filter.getSearchText();
+        if (text != null) {
+            // The same tiers as AttemptSearch.rank
+            String escaped = escapeLike(text);
+            sql += "CASE WHEN a.nptelId LIKE ? ESCAPE '\\' THEN 0"
+                    + " WHEN a.nptelId LIKE ? ESCAPE '\\' THEN 1"
+                    + " WHEN a.nptelId LIKE ? ESCAPE '\\' THEN 2"
+                    + " WHEN a.courseName LIKE ? ESCAPE '\\' THEN 3"
+                    + " WHEN a.courseName LIKE ? ESCAPE '\\' THEN 4"
+                    + " WHEN s.name LIKE ? ESCAPE '\\' THEN 5 ELSE 6 END, ";
+            params.add(escaped);
+            params.add(escaped + "%");
+            params.add("%" + escaped + "%");
+            params.add(escaped + "%");
+            params.add("%" + escaped + "%");
+            params.add(escaped + "%");
+        }
+        sql += "a.rowid DESC LIMIT ?";
+        params.add(limit);
+        List<AttemptRow> rows = new ArrayList<>();
+
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (cancelled.getAsBoolean()) return new ArrayList<>();
+                    rows.add(readAttemptRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("searchAttempts", start, rows.size());
+        return rows;
+    }
+
+    /**
+     * Builds the WHERE clause for a filter over "ATTEMPTS a LEFT JOIN STUDENTS s",
+     * appending the values to bind to {@code params}.
+     */
+    private String whereClause(AttemptFilter filter, List<Object> params) {
+        StringBuilder where = new StringBuilder(" WHERE 1 = 1");
+        if (filter.getSemester() != null) {
+            where.append(" AND a.semester = ?");
+            params.add(filter.getSemester().getNumber());
+        }
+        if (filter.getStatus() != null) {
+            where.append(" AND a.status = ?");
+            params.add(filter.getStatus().getFlags());
+        }
+        if (filter.getBatch() != null) {
+            where.append(" AND s.batch = ?");
+            params.add(filter.getBatch());
+        }
+        // Compared as epoch days, so a range is a scan of IDX_ATTEMPTS_EXAM_DATE
+        if (filter.getExamFrom() != null) {
+            where.append(" AND a.examDate >= ?");
+            params.add(filter.getExamFrom().toEpochDay());
+        }
+        if (filter.getExamTo() != null) {
+            where.append(" AND a.examDate <= ?");
+            params.add(filter.getExamTo().toEpochDay());
+        }
+        if (filter.getSearchText() != null) {
+            // LIKE is case-insensitive for ASCII, as AttemptSearch expects
+            String pattern = "%" + escapeLike(filter.getSearchText()) + "%";
+            where.append(" AND (a.nptelId LIKE ? ESCAPE '\\' OR a.courseName LIKE ? ESCAPE '\\' OR s.name LIKE ? ESCAPE '\\')");
+            params.add(pattern);
+            params.add(pattern);
+            params.add(pattern);
+        }
+        return where.toString();
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static void bind(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    // --- Streaming Methods ---
+
+    /**
+     * Receives rows one at a time from the forEach methods.
+     */
+    public interface RowHandler<T> {
+        /** @return false to stop before the next row */
+        boolean handle(T row);
+    }
+
+    private static final int STREAM_PAGE_SIZE = 1000;
+
+    /**
+     * Hands every attempt matching the filter to {@code handler}, in rowid order, without
+     * holding them all in memory. Rows are read a page at a time by keyset, so other
+     * callers can use the database between pages of a long export.
+     */
+    public void forEachAttempt(AttemptFilter filter, RowHandler<AttemptRow> handler) {
+        long afterRowId = Long.MIN_VALUE;
+        while (true) {
+            List<AttemptRow> page = queryAttemptsPage(filter, afterRowId, 0, STREAM_PAGE_SIZE);
+            for (AttemptRow row : page) {
+                if (!handler.handle(row)) return;
+            }
+            if (page.size() < STREAM_PAGE_SIZE) return;
+            afterRowId = page.get(page.size() - 1).getRowId();
+        }
+    }
+
+    /**
+     * Hands every student to {@code handler}, in rowid order, a page at a time.
+     */
+    public void forEachStudent(RowHandler<Student> handler) {
+        String sql = "SELECT rowid AS rowKey, id, name, email, batch, department, currentSemester FROM STUDENTS"
+                + " WHERE rowid > ? ORDER BY rowid LIMIT ?";
+        long afterRowId = Long.MIN_VALUE;
+        while (true) {
+            List<Student> page = new ArrayList<>(STREAM_PAGE_SIZE);
+            synchronized (this) {
+                long start = System.nanoTime();
+                try {
+                    PreparedStatement pstmt = prepare(sql);
+                    pstmt.setLong(1, afterRowId);
+                    pstmt.setInt(2, STREAM_PAGE_SIZE);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            afterRowId = rs.getLong("rowKey");
+                            page.add(readStudent(rs));
+                        }
+                    }
+                } catch (SQLException e) {
+                    reportError(e);
+                    return;
+                }
+                recordCall("forEachStudent", start, page.size());
+            }
+            for (Student student : page) {
+                if (!handler.handle(student)) return;
+            }
+            if (page.size() < STREAM_PAGE_SIZE) return;
+        }
+    }
+
+    /**
+     * The current state of the data, read in one statement. Anything derived from the
+     * rows (a snapshot file, say) is still valid if this has not changed.
+     * @return the version, or null if it could not be read
+     */
+    public synchronized DataVersion dataVersion() {
+        long start = System.nanoTime();
+        String sql = "SELECT (SELECT version FROM DATA_VERSION), (SELECT COUNT(*) FROM STUDENTS),"
+                + " (SELECT COUNT(*) FROM ATTEMPTS), (SELECT COALESCE(MAX(id), 0) FROM ATTEMPTS),"
+                + " (SELECT COALESCE(MAX(seq), 0) FROM CHANGE_JOURNAL)";
+        DataVersion version = null;
+
+        try (ResultSet rs = prepare(sql).executeQuery()) {
+            if (rs.next()) {
+                version = new DataVersion(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5));
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("dataVersion", start, 1);
+        return version;
+    }
+
+    /**
+     * Reads the change journal: every student and attempt inserted or deleted through
+     * DataManager after journal entry {@code sequence}, oldest first. Applying them in
+     * order to a copy of the data as of {@code sequence} (see
+     * {@link DataVersion#getLastChange()}) brings it up to date, at a cost that depends
+     * on the number of changes rather than the number of rows.
+     *
+     * Inserts carry the row as it is now. An insert whose row has since been deleted
+     * is left out, as the delete that follows it leaves nothing to apply. As with the
+     * change events, deleting a student also deletes their attempts.
+     *
+     * @param limit the most journal entries to read; if reached, the result is not
+     *              complete and the rest can be read from its last sequence number
+     * @return the changes, or null if the journal could not be read, as a partial read
+     *         would look like being caught up
+     */
+    public synchronized ChangeSet getChangesSince(long sequence, int limit) {
+        long start = System.nanoTime();
+        String sql = "SELECT seq, type, entity, studentId, attemptId FROM CHANGE_JOURNAL WHERE seq > ? ORDER BY seq LIMIT ?";
+        List<DataChangeEvent> changes = new ArrayList<>();
+        long last = sequence;
+        int read = 0;
+
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            pstmt.setLong(1, sequence);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    last = rs.getLong("seq");
+                    read++;
+                    DataChangeEvent change = readChange(DataChangeEvent.Type.valueOf(rs.getString("type")),
+                            DataChangeEvent.Entity.valueOf(rs.getString("entity")), rs.getString("studentId"), rs.getLong("attemptId"));
+                    if (change != null) {
+                        changes.add(change);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            reportError(e);
+            recordCall("getChangesSince", start, 0);
+            return null;
+        }
+        recordCall("getChangesSince", start, changes.size());
+        return new ChangeSet(changes, last, read < limit);
+    }
+
+    /** @return the change, or null for an insert whose row no longer exists */
+    private DataChangeEvent readChange(DataChangeEvent.Type type, DataChangeEvent.Entity entity,
+                                       String studentId, long attemptId) throws SQLException {
+        if (entity == DataChangeEvent.Entity.STUDENT) {
+            if (type == DataChangeEvent.Type.DELETE) return DataChangeEvent.studentDeleted(studentId);
+            Student student = findStudent(studentId);
+            return student == null ? null : DataChangeEvent.studentInserted(student);
+        }
+        if (type == DataChangeEvent.Type.DELETE) return DataChangeEvent.attemptDeleted(attemptId);
+        Attempt attempt = findAttempt(attemptId);
+        return attempt == null ? null : DataChangeEvent.attemptInserted(attempt);
+    }
+
+    public synchronized long countStudents() {
+        long start = System.nanoTime();
+        long count = 0;
+        try (ResultSet rs = prepare("SELECT COUNT(*) FROM STUDENTS").executeQuery()) {
+            count = rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("countStudents", start, 1);
+        return count;
+    }
+
+    // --- Report Methods ---
+    // Read from the summary tables, which every write updates in its own transaction
+    // (see SummaryDelta), so the cost does not grow with the number of attempts.
+
+    /**
+     * Per-batch student counts and attempt totals, ordered by batch. Every batch with a
+     * student gets a row, even if none of its students has an attempt.
+     */
+    public synchronized List<SummaryRow> batchSummary() {
+        long start = System.nanoTime();
+        String sql = "SELECT batch AS groupKey, students, attempts, passed, elite, scoreSum"
+                + " FROM BATCH_SUMMARY WHERE students > 0 ORDER BY batch";
+        List<SummaryRow> rows = querySummary(sql);
+        recordCall("batchSummary", start, rows.size());
+        return rows;
+    }
+
+    /**
+     * Per-semester attempt totals for every semester that has attempts, ordered by semester.
+     * The student count is the number of distinct students with an attempt in that semester.
+     */
+    public synchronized List<SummaryRow> semesterSummary() {
+        long start = System.nanoTime();
+        String sql = "SELECT semester AS groupKey, students, attempts, passed, elite, scoreSum"
+                + " FROM SEMESTER_SUMMARY WHERE attempts > 0 ORDER BY semester";
+        List<SummaryRow> rows = querySummary(sql);
+        recordCall("semesterSummary", start, rows.size());
+        return rows;
+    }
+
+    /**
+     * Totals over the whole database, keyed "All".
+     */
+    public synchronized SummaryRow overallStats() {
+        long start = System.nanoTime();
+        // Attempts from the semester rows, which count every attempt: the batch rows miss
+        // any whose student is gone, as an upgraded database can hold
+        String sql = "SELECT 'All' AS groupKey, (SELECT COALESCE(SUM(students), 0) FROM BATCH_SUMMARY) AS students,"
+                + " COALESCE(SUM(attempts), 0) AS attempts, COALESCE(SUM(passed), 0) AS passed,"
+                + " COALESCE(SUM(elite), 0) AS elite, COALESCE(SUM(scoreSum), 0) AS scoreSum"
+                + " FROM SEMESTER_SUMMARY";
+        List<SummaryRow> rows = querySummary(sql);
+        recordCall("overallStats", start, rows.size());
+        return rows.isEmpty() ? new SummaryRow("All", 0, new AttemptStats()) : rows.get(0);
+    }
+
+    /**
+     * Attempt totals per calendar month of the exam date ("2025-04"), in order, over the
+     * attempts matching the filter. Attempts with no exam date are left out. Unlike the
+     * batch and semester reports these are computed on demand; give the filter an exam
+     * date range to keep the pass over ATTEMPTS to an index range.
+     */
+    public synchronized List<SummaryRow> examMonthSummary(AttemptFilter filter) {
+        long start = System.nanoTime();
+        List<SummaryRow> rows = examDateSummary("strftime('%Y-%m', " + EXAM_DATE_UNIX + ")", filter);
+        recordCall("examMonthSummary", start, rows.size());
+        return rows;
+    }
+
+    /**
+     * Attempt totals per NPTEL exam session, in order: exams from January to June belong
+     * to the January session ("2025 Jan-Apr"), the rest to the July one ("2025 Jul-Oct").
+     * Otherwise the same as {@link #examMonthSummary}.
+     */
+    public synchronized List<SummaryRow> examSessionSummary(AttemptFilter filter) {
+        long start = System.nanoTime();
+        String session = "strftime('%Y', " + EXAM_DATE_UNIX + ")"
+                + " || CASE WHEN strftime('%m', " + EXAM_DATE_UNIX + ") <= '06' THEN ' Jan-Apr' ELSE ' Jul-Oct' END";
+        List<SummaryRow> rows = examDateSummary(session, filter);
+        recordCall("examSessionSummary", start, rows.size());
+        return rows;
+    }
+
+    private List<SummaryRow> examDateSummary(String groupKey, AttemptFilter filter) {
+        List<Object> params = new ArrayList<>();
+        String sql = "SELECT " + groupKey + " AS groupKey, COUNT(DISTINCT a.studentId) AS students, " + ATTEMPT_TOTALS
+                + " FROM ATTEMPTS a LEFT JOIN STUDENTS s ON s.id = a.studentId" + whereClause(filter, params)
+                + " AND a.examDate IS NOT NULL GROUP BY groupKey ORDER BY groupKey";
+        return querySummary(sql, params);
+    }
+
+    /**
+     * Recomputes the summary tables from scratch, in one transaction. Only needed to repair
+     * them, e.g. after the database was edited outside this class.
+     * @return true if the rebuild committed
+     */
+    public synchronized boolean rebuildSummaries() {
+        long start = System.nanoTime();
+        boolean rebuilt = false;
+        try {
+            rebuilt = inTransaction(() -> {
+                try (Statement stmt = connect().createStatement()) {
+                    for (String sql : SchemaMigrator.REBUILD_SUMMARIES) {
+                        stmt.execute(sql);
+                    }
+                }
+                return true;
+            });
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        recordCall("rebuildSummaries", start, 0);
+        return rebuilt;
+    }
+
+    private List<SummaryRow> querySummary(String sql) {
+        return querySummary(sql, List.of());
+    }
+
+    private List<SummaryRow> querySummary(String sql, List<Object> params) {
+        List<SummaryRow> rows = new ArrayList<>();
+
+        try {
+            PreparedStatement pstmt = prepare(sql);
+            bind(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new SummaryRow(rs.getString("groupKey"), rs.getLong("students"), readAttemptStats(rs)));
+                }
+            }
+        } catch (SQLException e) {
+            reportError(e);
+        }
+        return rows;
+    }
+
+    // --- Bulk Write Methods ---
+
+    /**
+     * Inserts all students in one transaction. Students whose ID already exists are
+     * skipped and reported in the result.
+     */
+    public synchronized BatchResult addStudents(Collection<Student> students) {
+        long start = System.nanoTime();
+        String sql = "INSERT OR IGNORE INTO STUDENTS(id, name, email, batch, department, currentSemester) VALUES(?,?,?,?,?,?)";
+        List<Student> inserted = new ArrayList<>();
+        BatchResult result = executeInBatches(sql, students, Student::getId, "Student ID already exists", inserted, (pstmt, student) -> {
+            pstmt.setString(1, student.getId());
+            pstmt.setString(2, student.getName());
+            pstmt.setString(3, student.getEmail());
+            pstmt.setString(4, student.getBatch());
+            pstmt.setString(5, student.getDepartment());
+            pstmt.setString(6, student.getCurrentSemester());
+        }, applied -> {
+            SummaryDelta delta = new SummaryDelta();
+            List<DataChangeEvent> changes = new ArrayList<>(applied.size());
+            for (Student student : applied) {
+                delta.student(student.getBatch(), 1);
+                changes.add(DataChangeEvent.studentInserted(student));
+            }
+            applyWrite(delta, changes);
+        });
+        inserted.forEach(student -> fireDataChanged(DataChangeEvent.studentInserted(student)));
+        recordCall("addStudents", start, inserted.size());
+        return result;
+    }
+
+    /**
+     * Inserts all attempts in one transaction. Attempts that violate a constraint
+     * are skipped and reported in the result; the rest are still written.
+     */
+    public synchronized BatchResult addAttempts(Collection<Attempt> attempts) {
+        long start = System.nanoTime();
+        String sql = "INSERT INTO ATTEMPTS(id, studentId, nptelId, courseName, examDate, score, semester, status) VALUES(?,?,?,?,?,?,?,?)";
+        List<Attempt> inserted = new ArrayList<>();
+        BatchResult result = executeInBatches(sql, attempts, attempt -> String.valueOf(attempt.getId()), "Attempt was not inserted", inserted, (pstmt, attempt) -> {
+            pstmt.setLong(1, attempt.getId());
             pstmt.setString(2, attempt.getStudentId());
             pstmt.setString(3, attempt.getNptelId());
             pstmt.setString(4, attempt.getCourseName());
-            pstmt.setString(5, attempt.getExamDate().toString()); // Store LocalDate as TEXT
+            bindExamDate(pstmt, 5, attempt.getExamDate());
             pstmt.setInt(6, attempt.getScore());
-            pstmt.setString(7, attempt.getSemester());
-            pstmt.setString(8, attempt.getStatus());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            System.out.println(e.getMessage());
-        }
+            bindSemester(pstmt, 7, attempt.getSemester());
+            bindStatus(pstmt, 8, attempt.getStatus());
+        }, applied -> applySummaries(applied, 1));
+        inserted.forEach(attempt -> fireDataChanged(DataChangeEvent.attemptInserted(attempt)));
+        recordCall("addAttempts", start, inserted.size());
+        return result;
     }
 
-    public void deleteAttempt(String attemptId) {
+    /**
+     * Deletes all the given attempts in one transaction. IDs that match no attempt
+     * are reported in the result.
+     */
+    public synchronized BatchResult deleteAttempts(Collection<Long> attemptIds) {
+        long start = System.nanoTime();
         String sql = "DELETE FROM ATTEMPTS WHERE id = ?";
+        List<Long> deleted = new ArrayList<>();
+        // Remember what is being deleted so it can be taken out of the summaries afterwards
+        Map<Long, Attempt> attempts = new HashMap<>();
+        BatchResult result = executeInBatches(sql, attemptIds, String::valueOf, "No attempt with this ID", deleted,
+                (pstmt, attemptId) -> {
+                    Attempt attempt = findAttempt(attemptId);
+                    if (attempt != null) {
+                        attempts.put(attemptId, attempt);
+                    }
+                    pstmt.setLong(1, attemptId);
+                }, applied -> {
+                    List<Attempt> removed = new ArrayList<>();
+                    for (Long attemptId : applied) {
+                        removed.add(attempts.get(attemptId));
+                    }
+                    applySummaries(removed, -1);
+                });
+        deleted.forEach(attemptId -> fireDataChanged(DataChangeEvent.attemptDeleted(attemptId)));
+        recordCall("deleteAttempts", start, deleted.size());
+        return result;
+    }
+
+    private interface RowBinder<T> {
+        void bind(PreparedStatement pstmt, T row) throws SQLException;
+    }
 
-        try (Connection conn = connect();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, attemptId);
-            pstmt.executeUpdate();
+    private interface AppliedRowsHandler<T> {
+        void handle(List<T> applied) throws SQLException;
+    }
+
+    /**
+     * Runs one statement per row inside a single transaction, sending rows to SQLite
+     * in chunks of {@link #getBatchSize()}. A row that changes nothing is reported with
+     * {@code noChangeReason}; if a chunk fails, it is rolled back to a savepoint and
+     * replayed row by row so only the offending rows are rejected. Rows that were
+     * committed are added to {@code applied}, which is handed to {@code beforeCommit}
+     * just before the transaction commits; if it throws, nothing is written. Like any
+     * write transaction, it is retried from the start if the database stays locked.
+     */
+    private <T> BatchResult executeInBatches(String sql, Collection<T> rows, Function<T, String> keyOf,
+                                             String noChangeReason, List<T> applied, RowBinder<T> binder,
+                                             AppliedRowsHandler<T> beforeCommit) {
+        if (rows.isEmpty()) {
+            return new BatchResult();
+        }
+
+        try {
+            return inTransaction(() -> {
+                // A retried transaction starts over
+                BatchResult result = new BatchResult();
+                applied.clear();
+                Connection conn = connect();
+                PreparedStatement pstmt = prepare(sql);
+                List<T> chunk = new ArrayList<>(Math.min(batchSize, rows.size()));
+                for (T row : rows) {
+                    chunk.add(row);
+                    if (chunk.size() == batchSize) {
+                        executeChunk(conn, pstmt, chunk, keyOf, noChangeReason, binder, result, applied);
+                        chunk.clear();
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    executeChunk(conn, pstmt, chunk, keyOf, noChangeReason, binder, result, applied);
+                }
+                beforeCommit.handle(applied);
+                return result;
+            });
         } catch (SQLException e) {
-            System.out.println(e.getMessage());
+            reportError(e);
+            // Nothing was written, so every row counts as rejected
+            applied.clear();
+            BatchResult result = new BatchResult();
+            for (T row : rows) {
+                result.recordFailure(keyOf.apply(row), e.getMessage());
+            }
+            return result;
+        }
+    }
+
+    private <T> void executeChunk(Connection conn, PreparedStatement pstmt, List<T> chunk, Function<T, String> keyOf,
+                                  String noChangeReason, RowBinder<T> binder, BatchResult result,
+                                  List<T> applied) throws SQLException {
+        Savepoint savepoint = conn.setSavepoint();
+        for (T row : chunk) {
+            binder.bind(pstmt, row);
+            pstmt.addBatch();
         }
+        try {
+            int[] counts = pstmt.executeBatch();
+            for (int i = 0; i < chunk.size(); i++) {
+                recordRow(result, applied, chunk.get(i), keyOf.apply(chunk.get(i)), counts[i], noChangeReason);
+            }
+        } catch (SQLException batchError) {
+            pstmt.clearBatch();
+            conn.rollback(savepoint);
+            for (T row : chunk) {
+                try {
+                    binder.bind(pstmt, row);
+                    recordRow(result, applied, row, keyOf.apply(row), pstmt.executeUpdate(), noChangeReason);
+                } catch (SQLException rowError) {
+                    countError(rowError);
+                    result.recordFailure(keyOf.apply(row), rowError.getMessage());
+                }
+            }
+        }
+        conn.releaseSavepoint(savepoint);
+    }
+
+    private <T> void recordRow(BatchResult result, List<T> applied, T row, String key, int changed, String noChangeReason) {
+        if (changed > 0) {
+            result.recordApplied();
+            applied.add(row);
+        } else {
+            result.recordFailure(key, noChangeReason);
+        }
+    }
+
+    // --- Row Mapping ---
+
+    private Student readStudent(ResultSet rs) throws SQLException {
+        return new Student(
+                studentIds.intern(rs.getString("id")),
+                studentNames.intern(rs.getString("name")),
+                rs.getString("email"),
+                batches.intern(rs.getString("batch")),
+                departments.intern(rs.getString("department")),
+                currentSemesters.intern(rs.getString("currentSemester"))
+        );
+    }
+
+    private AttemptRow readAttemptRow(ResultSet rs) throws SQLException {
+        return new AttemptRow(rs.getLong("rowKey"), readAttempt(rs),
+                studentNames.intern(rs.getString("studentName")), batches.intern(rs.getString("studentBatch")));
+    }
+
+    private AttemptStats readAttemptStats(ResultSet rs) throws SQLException {
+        return new AttemptStats(
+                rs.getLong("attempts"),
+                rs.getLong("passed"),
+                rs.getLong("elite"),
+                rs.getLong("scoreSum")
+        );
+    }
+
+    /**
+     * Exam dates are stored as epoch days (see SchemaMigrator, version 5).
+     */
+    private static void bindExamDate(PreparedStatement pstmt, int index, LocalDate date) throws SQLException {
+        if (date == null) {
+            pstmt.setNull(index, Types.INTEGER);
+        } else {
+            pstmt.setLong(index, date.toEpochDay());
+        }
+    }
+
+    private LocalDate readExamDate(ResultSet rs) throws SQLException {
+        long epochDay = rs.getLong("examDate");
+        return rs.wasNull() ? null : examDates.intern(LocalDate.ofEpochDay(epochDay));
+    }
+
+    /**
+     * Semesters are stored as their number and statuses as their flags (see SchemaMigrator, version 6).
+     */
+    private static void bindSemester(PreparedStatement pstmt, int index, Semester semester) throws SQLException {
+        if (semester == null) {
+            pstmt.setNull(index, Types.INTEGER);
+        } else {
+            pstmt.setInt(index, semester.getNumber());
+        }
+    }
+
+    private static void bindStatus(PreparedStatement pstmt, int index, Status status) throws SQLException {
+        if (status == null) {
+            pstmt.setNull(index, Types.INTEGER);
+        } else {
+            pstmt.setInt(index, status.getFlags());
+        }
+    }
+
+    private static Semester readSemester(ResultSet rs) throws SQLException {
+        int number = rs.getInt("semester");
+        return rs.wasNull() ? null : Semester.of(number);
+    }
+
+    private static Status readStatus(ResultSet rs) throws SQLException {
+        int flags = rs.getInt("status");
+        return rs.wasNull() ? null : Status.fromFlags(flags);
+    }
+
+    private Attempt readAttempt(ResultSet rs) throws SQLException {
+        // Use the loading constructor so the *actual* DB id is kept
+        return new Attempt(
+                rs.getLong("id"),
+                studentIds.intern(rs.getString("studentId")),
+                nptelIds.intern(rs.getString("nptelId")),
+                courseNames.intern(rs.getString("courseName")),
+                readExamDate(rs),
+                rs.getInt("score"),
+                readSemester(rs),
+                readStatus(rs)
+        );
     }
 }
\ No newline at end of file
@@ -0,0 +1,186 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for the data paths the UI leans on: loading attempts, looking up a student,
+ * adding an attempt, the filter tab (page + stats + search), the summary reports and the
+ * CSV export. Each dataset size is generated by DatasetGenerator into its own temporary
+ * SQLite file, then every operation runs against DataManager and CachingDataManager in
+ * turn and reports throughput, latency percentiles and bytes allocated per operation.
+ * Before that, it measures the heap that loading every attempt retains, with DataManager's
+ * shared strings and dates and with a fresh copy of each, as rows had before pooling.
+ *
+ * Usage: java -cp .;sqlite-jdbc-3.51.0.0.jar DataManagerBenchmark [attempts...]
+ * (default 1000 100000 1000000)
+ */
+public class DataManagerBenchmark {
+
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final long MEASURE_NANOS = 3_000_000_000L;
+    private static final int MIN_ITERATIONS = 5;
+    private static final int MAX_ITERATIONS = 1_000_000;
+    private static final int STUDENTS_PER_ATTEMPTS = 10; // One student per ten attempts
+    private static final long SEED = 42;
+
+    /**
+     * One benchmarked call; {@code i} counts the calls so far.
+     */
+    private interface Operation {
+        void run(int i) throws Exception;
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        long[] sizes = args.length == 0 ? new long[]{1_000, 100_000, 1_000_000}
+                : Arrays.stream(args).mapToLong(Long::parseLong).toArray();
+
+        System.out.printf("%-10s %-8s %-16s %12s %10s %10s %10s %10s %14s%n",
+                "attempts", "backend", "operation", "ops/s", "p50 us", "p90 us", "p99 us", "max us", "alloc B/op");
+        for (long size : sizes) {
+            Path dir = Files.createTempDirectory("nptel-bench");
+            Path db = dir.resolve("bench.db");
+            try {
+                DataManager seeder = new DataManager("jdbc:sqlite:" + db);
+                List<Student> students = new DatasetGenerator(SEED).populate(seeder,
+                        (int) Math.max(1, size / STUDENTS_PER_ATTEMPTS), (int) size);
+                seeder.close();
+                footprint(size, db);
+                run(size, "sql", new DataManager("jdbc:sqlite:" + db), students, dir);
+                run(size, "cached", new CachingDataManager("jdbc:sqlite:" + db), students, dir);
+            } finally {
+                deleteAll(dir);
+            }
+        }
+    }
+
+    // --- Benchmarks ---
+
+    private static void run(long size, String backend, DataManager dataManager, List<Student> students, Path dir)
+            throws Exception {
+        DatasetGenerator generator = new DatasetGenerator(SEED);
+        Random random = new Random(SEED);
+        AttemptFilter semesterFilter = new AttemptFilter("3", null, null, null);
+        AttemptFilter batchFilter = new AttemptFilter(null, "2022", "Pass", null);
+        AttemptFilter searchFilter = new AttemptFilter(null, null, null, "learn");
+        CsvExporter exporter = new CsvExporter(dataManager);
+        Path csv = dir.resolve("bench.csv");
+
+        // Loads everything first, so the cached backend is measured warm
+        measure(size, backend, "getAttempts", i -> dataManager.getAttempts());
+        measure(size, backend, "findStudentById", i -> dataManager.findStudentById(pick(students, random).getId()));
+        measure(size, backend, "filterPage", i -> dataManager.queryAttemptsPage(semesterFilter, 0, 0, 100));
+        measure(size, backend, "filterCount", i -> dataManager.countAttempts(semesterFilter));
+        measure(size, backend, "filterStats", i -> dataManager.attemptStats(batchFilter));
+        measure(size, backend, "search", i -> dataManager.searchAttempts(searchFilter, 500, () -> false));
+        measure(size, backend, "batchSummary", i -> dataManager.batchSummary());
+        measure(size, backend, "semesterSummary", i -> dataManager.semesterSummary());
+        measure(size, backend, "exportCsv", i -> exporter.exportAttempts(csv, semesterFilter, (done, total) -> { }, () -> false));
+        measure(size, backend, "addAttempt", i -> dataManager.addAttempt(generator.nextAttempt(pick(students, random))));
+        dataManager.close();
+    }
+
+    /**
+     * Prints the heap retained by getAttempts() against a copy of the same attempts in
+     * which every string and date is its own object.
+     */
+    private static void footprint(long size, Path db) {
+        DataManager dataManager = new DataManager("jdbc:sqlite:" + db);
+        long before = usedHeap();
+        List<Attempt> pooled = dataManager.getAttempts(); // Includes the pools' own tables
+        long pooledBytes = usedHeap() - before;
+
+        before = usedHeap();
+        List<Attempt> unshared = new ArrayList<>(pooled.size());
+        for (Attempt a : pooled) {
+            unshared.add(new Attempt(a.getId(), copy(a.getStudentId()), copy(a.getNptelId()), copy(a.getCourseName()),
+                    a.getExamDate() == null ? null : LocalDate.ofEpochDay(a.getExamDate().toEpochDay()),
+                    a.getScore(), a.getSemester(), a.getStatus()));
+        }
+        long unsharedBytes = usedHeap() - before;
+
+        int n = Math.max(1, pooled.size());
+        System.out.printf(Locale.ROOT, "%-10d %-8s %-16s pooled %d B/attempt, unshared %d B/attempt (%d attempts, %.0f%% saved)%n",
+                size, "sql", "heapFootprint", pooledBytes / n, unsharedBytes / n, pooled.size(),
+                100.0 * (unsharedBytes - pooledBytes) / Math.max(1, unsharedBytes));
+        // Both lists must still be live when their heap is measured
+        Reference.reachabilityFence(pooled);
+        Reference.reachabilityFence(unshared);
+        dataManager.close();
+    }
+
+    private static String copy(String value) {
+        return value == null ? null : new String(value);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void measure(long size, String backend, String name, Operation operation) throws Exception {
+        loop(operation, WARMUP_NANOS, null);
+
+        long[] latencies = new long[MAX_ITERATIONS];
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        int iterations = loop(operation, MEASURE_NANOS, latencies);
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        long[] sorted = Arrays.copyOf(latencies, iterations);
+        Arrays.sort(sorted);
+        System.out.printf(Locale.ROOT, "%-10d %-8s %-16s %12.1f %10.1f %10.1f %10.1f %10.1f %14d%n",
+                size, backend, name, iterations * 1e9 / elapsed,
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                sorted[sorted.length - 1] / 1e3, allocated / iterations);
+    }
+
+    /**
+     * Runs the operation until the time is up (but at least MIN_ITERATIONS times),
+     * recording each call's latency if {@code latencies} is given.
+     */
+    private static int loop(Operation operation, long nanos, long[] latencies) throws Exception {
+        long end = System.nanoTime() + nanos;
+        int i = 0;
+        while (i < MAX_ITERATIONS && (i < MIN_ITERATIONS || System.nanoTime() < end)) {
+            long start = System.nanoTime();
+            operation.run(i);
+            if (latencies != null) latencies[i] = System.nanoTime() - start;
+            i++;
+        }
+        return i;
+    }
+
+    private static Student pick(List<Student> students, Random random) {
+        return students.get(random.nextInt(students.size()));
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        int at = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, at)] / 1e3;
+    }
+
+    private static void deleteAll(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+/**
+ * Identifies one state of the data: the write counter DataManager bumps in every
+ * write transaction, plus row counts and the highest attempt id, which also change
+ * when the database is edited by something other than DataManager. Two equal
+ * versions are taken to mean the same rows. The sequence number of the last change
+ * journal entry tells a copy of an older version where to catch up from.
+ */
+public class DataVersion {
+    private final long version;
+    private final long students;
+    private final long attempts;
+    private final long maxAttemptId;
+    private final long lastChange;
+
+    public DataVersion(long version, long students, long attempts, long maxAttemptId, long lastChange) {
+        this.version = version;
+        this.students = students;
+        this.attempts = attempts;
+        this.maxAttemptId = maxAttemptId;
+        this.lastChange = lastChange;
+    }
+
+    // Getters
+    public long getVersion() { return version; }
+    public long getStudents() { return students; }
+    public long getAttempts() { return attempts; }
+    public long getMaxAttemptId() { return maxAttemptId; }
+    public long getLastChange() { return lastChange; }
+
+    /** @return true if both have the same rows by count and highest attempt id */
+    public boolean sameRowsAs(DataVersion other) {
+        return students == other.students && attempts == other.attempts && maxAttemptId == other.maxAttemptId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof DataVersion)) return false;
+        DataVersion other = (DataVersion) o;
+        return version == other.version && lastChange == other.lastChange && sameRowsAs(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(version) * 31 + Long.hashCode(attempts);
+    }
+
+    @Override
+    public String toString() {
+        return "version " + version + " (" + students + " students, " + attempts + " attempts, max id " + maxAttemptId + ", last change " + lastChange + ")";
+    }
+}
\ No newline at end of file
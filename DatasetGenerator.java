@@ -0,0 +1,142 @@
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates realistic students and attempts from a seed, for sizing and load tests.
+ * The same seed always produces the same rows (attempt IDs aside, which come from
+ * AttemptIdGenerator like every new attempt's).
+ *
+ * Students are spread over five batches and six departments, each in the semester
+ * their batch has reached. Each attempt belongs to a semester the student has
+ * already taken, has an exam date in that semester's exam window, and a score drawn
+ * from a bell curve around 62; its status follows NPTEL's certificate bands
+ * (Fail below 40, Pass below 60, Elite below 90, then Elite + Gold).
+ *
+ * Usage: java -cp .;sqlite-jdbc-3.51.0.0.jar DatasetGenerator students attempts [seed] [jdbc url]
+ */
+public class DatasetGenerator {
+
+    // Rows per addStudents / addAttempts call, so memory stays flat for any size
+    private static final int CHUNK_SIZE = 10_000;
+    private static final long DEFAULT_SEED = 42;
+
+    // The academic year the generated students are in
+    private static final int CURRENT_YEAR = 2025;
+    private static final int[] BATCHES = {2021, 2022, 2023, 2024, 2025};
+    private static final String[] DEPARTMENTS = {"CSE", "IT", "ECE", "EEE", "MECH", "CIVIL"};
+
+    private static final String[] FIRST_NAMES = {"Aarav", "Priya", "Karthik", "Divya", "Rahul", "Sneha", "Arjun",
+            "Lakshmi", "Vikram", "Ananya", "Surya", "Meera", "Rohan", "Kavya", "Aditya", "Nithya", "Harish", "Pooja"};
+    private static final String[] LAST_NAMES = {"Kumar", "Raman", "Sharma", "Iyer", "Reddy", "Nair", "Patel",
+            "Krishnan", "Das", "Menon", "Rao", "Singh", "Subramanian", "Gupta"};
+
+    // NPTEL course code suffix and name; the code prefix carries the exam year
+    private static final String[][] COURSES = {
+            {"cs23", "Data Structures and Algorithms"}, {"cs42", "Programming in Java"},
+            {"cs46", "Machine Learning"}, {"cs61", "Deep Learning"}, {"cs17", "Cloud Computing"},
+            {"cs51", "Database Management System"}, {"cs33", "Compiler Design"}, {"cs29", "Operating Systems"},
+            {"ee14", "Digital Circuits"}, {"ee38", "Control Systems"}, {"me22", "Engineering Mechanics"},
+            {"ce11", "Surveying"}, {"hs35", "Soft Skills"}, {"ma19", "Probability and Statistics"}};
+
+    private static final double SCORE_MEAN = 62;
+    private static final double SCORE_DEVIATION = 18;
+
+    private final Random random;
+    private int studentsGenerated;
+
+    public DatasetGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: DatasetGenerator students attempts [seed] [jdbc url]");
+            return;
+        }
+        int students = Integer.parseInt(args[0]);
+        int attempts = Integer.parseInt(args[1]);
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        DataManager dataManager = args.length > 3 ? new DataManager(args[3]) : new DataManager();
+
+        long start = System.nanoTime();
+        new DatasetGenerator(seed).populate(dataManager, students, attempts);
+        dataManager.close();
+        System.out.printf(Locale.ROOT, "Wrote %d students and %d attempts in %.1fs%n",
+                students, attempts, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Writes {@code students} new students and {@code attempts} attempts spread over
+     * them through DataManager's bulk inserts.
+     * @return the students written, for picking attempt owners later
+     */
+    public List<Student> populate(DataManager dataManager, int students, int attempts) {
+        List<Student> written = new ArrayList<>(students);
+        while (written.size() < students) {
+            List<Student> chunk = new ArrayList<>();
+            while (chunk.size() < CHUNK_SIZE && written.size() + chunk.size() < students) {
+                chunk.add(nextStudent());
+            }
+            dataManager.addStudents(chunk);
+            written.addAll(chunk);
+        }
+
+        List<Attempt> chunk = new ArrayList<>(Math.min(attempts, CHUNK_SIZE));
+        for (int i = 0; i < attempts && !written.isEmpty(); i++) {
+            chunk.add(nextAttempt(written.get(random.nextInt(written.size()))));
+            if (chunk.size() == CHUNK_SIZE) {
+                dataManager.addAttempts(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            dataManager.addAttempts(chunk);
+        }
+        return written;
+    }
+
+    public Student nextStudent() {
+        int n = studentsGenerated++;
+        int batch = BATCHES[random.nextInt(BATCHES.length)];
+        String department = DEPARTMENTS[random.nextInt(DEPARTMENTS.length)];
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        // Two semesters per year since joining, one more if the even term has started
+        int semester = Math.min(8, (CURRENT_YEAR - batch) * 2 + 1 + random.nextInt(2));
+
+        String id = String.format(Locale.ROOT, "%02d%s%05d", batch % 100, department, n);
+        String email = (first + "." + last + n + "@college.edu").toLowerCase(Locale.ROOT);
+        return new Student(id, first + " " + last, email, String.valueOf(batch), department, String.valueOf(semester));
+    }
+
+    /**
+     * An attempt by the student in one of the semesters they have reached.
+     */
+    public Attempt nextAttempt(Student student) {
+        int batch = Integer.parseInt(student.getBatch());
+        int semester = 1 + random.nextInt(Integer.parseInt(student.getCurrentSemester()));
+
+        // Odd semesters sit their exams in late October, even ones in late April
+        int yearStarted = batch + (semester - 1) / 2;
+        LocalDate examDate = semester % 2 == 1
+                ? LocalDate.of(yearStarted, 10, 18 + random.nextInt(10))
+                : LocalDate.of(yearStarted + 1, 4, 20 + random.nextInt(8));
+
+        String[] course = COURSES[random.nextInt(COURSES.length)];
+        String nptelId = String.format(Locale.ROOT, "noc%02d-%s", examDate.getYear() % 100, course[0]);
+        int score = (int) Math.round(SCORE_MEAN + random.nextGaussian() * SCORE_DEVIATION);
+        score = Math.max(0, Math.min(100, score));
+
+        return new Attempt(student.getId(), nptelId, course[1], examDate, score, Semester.of(semester), status(score));
+    }
+
+    private static Status status(int score) {
+        if (score < 40) return Status.FAIL;
+        if (score < 60) return Status.PASS;
+        if (score < 90) return Status.ELITE;
+        return Status.ELITE_GOLD;
+    }
+}
\ No newline at end of file
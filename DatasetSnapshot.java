@@ -0,0 +1,259 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Every student and attempt in one binary file, so CachingDataManager can start
+ * from it instead of reading both tables through JDBC. The file records the
+ * DataVersion it was written at: while the database is still at that version the
+ * snapshot is used as is, and otherwise it is brought up to date from the change
+ * journal entries made since.
+ *
+ * Layout (big-endian):
+ *   header   magic "NPTS", format version, the DataVersion (version, students,
+ *            attempts, max attempt id, last change), body length, CRC-32 of the body
+ *   strings  count, then each as a length and its UTF-8 bytes; every distinct
+ *            string once, referred to below by index (-1 for null)
+ *   students one column at a time: id, name, email, batch, department and
+ *            current semester, as string indexes
+ *   attempts one column at a time: id (long), student id, NPTEL id and course
+ *            (string indexes), exam date (epoch day), score, then semester and
+ *            status flags as bytes
+ *
+ * The file is memory-mapped to read, so the checksum and the columns are read
+ * straight from the page cache.
+ */
+public class DatasetSnapshot {
+
+    private static final int MAGIC = 0x4E505453; // "NPTS"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 5 * 8 + 8 + 8;
+    private static final int NO_STRING = -1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final byte NO_VALUE = -1; // Semester or status not set
+
+    private final DataVersion version;
+    private final List<Student> students;
+    private final List<Attempt> attempts;
+
+    private DatasetSnapshot(DataVersion version, List<Student> students, List<Attempt> attempts) {
+        this.version = version;
+        this.students = students;
+        this.attempts = attempts;
+    }
+
+    // Getters
+    public DataVersion getVersion() { return version; }
+    public List<Student> getStudents() { return students; }
+    public List<Attempt> getAttempts() { return attempts; }
+
+    // --- Writing ---
+
+    /**
+     * Writes the rows as a snapshot of the data at {@code version}. The file is written
+     * next to {@code file} and moved over it once complete, so a reader never sees half
+     * a snapshot.
+     */
+    public static void write(Path file, DataVersion version, Collection<Student> students,
+                             Collection<Attempt> attempts) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+        long bodyLength;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.position(HEADER_BYTES);
+            CountingOutputStream counter = new CountingOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(counter, crc));
+            writeBody(out, students, attempts);
+            out.flush();
+            bodyLength = counter.count;
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(FORMAT_VERSION)
+                    .putLong(version.getVersion()).putLong(version.getStudents())
+                    .putLong(version.getAttempts()).putLong(version.getMaxAttemptId()).putLong(version.getLastChange())
+                    .putLong(bodyLength).putLong(crc.getValue())
+                    .flip();
+            channel.write(header, 0);
+            channel.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeBody(DataOutputStream out, Collection<Student> students,
+                                  Collection<Attempt> attempts) throws IOException {
+        // Number every distinct string in order of first use
+        Map<String, Integer> strings = new HashMap<>();
+        List<String> table = new ArrayList<>();
+        for (Student s : students) {
+            for (String value : new String[]{s.getId(), s.getName(), s.getEmail(), s.getBatch(),
+                    s.getDepartment(), s.getCurrentSemester()}) {
+                number(value, strings, table);
+            }
+        }
+        for (Attempt a : attempts) {
+            number(a.getStudentId(), strings, table);
+            number(a.getNptelId(), strings, table);
+            number(a.getCourseName(), strings, table);
+        }
+
+        out.writeInt(table.size());
+        for (String value : table) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        for (Student s : students) out.writeInt(ref(s.getId(), strings));
+        for (Student s : students) out.writeInt(ref(s.getName(), strings));
+        for (Student s : students) out.writeInt(ref(s.getEmail(), strings));
+        for (Student s : students) out.writeInt(ref(s.getBatch(), strings));
+        for (Student s : students) out.writeInt(ref(s.getDepartment(), strings));
+        for (Student s : students) out.writeInt(ref(s.getCurrentSemester(), strings));
+
+        for (Attempt a : attempts) out.writeLong(a.getId());
+        for (Attempt a : attempts) out.writeInt(ref(a.getStudentId(), strings));
+        for (Attempt a : attempts) out.writeInt(ref(a.getNptelId(), strings));
+        for (Attempt a : attempts) out.writeInt(ref(a.getCourseName(), strings));
+        for (Attempt a : attempts) out.writeInt(a.getExamDate() == null ? NO_DATE : (int) a.getExamDate().toEpochDay());
+        for (Attempt a : attempts) out.writeInt(a.getScore());
+        for (Attempt a : attempts) out.writeByte(a.getSemester() == null ? NO_VALUE : a.getSemester().getNumber());
+        for (Attempt a : attempts) out.writeByte(a.getStatus() == null ? NO_VALUE : a.getStatus().getFlags());
+    }
+
+    private static void number(String value, Map<String, Integer> strings, List<String> table) {
+        if (value != null && !strings.containsKey(value)) {
+            strings.put(value, table.size());
+            table.add(value);
+        }
+    }
+
+    private static int ref(String value, Map<String, Integer> strings) {
+        return value == null ? NO_STRING : strings.get(value);
+    }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    // --- Reading ---
+
+    /**
+     * Reads the snapshot, whatever version of the data it holds.
+     * @return the snapshot, or null if there is none, it is of another format, or its
+     *         checksum does not match
+     */
+    public static DatasetSnapshot read(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) return null;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) return null;
+        DataVersion version = new DataVersion(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+        long bodyLength = buffer.getLong();
+        long checksum = buffer.getLong();
+        if (bodyLength != buffer.remaining()) return null;
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice());
+        if (crc.getValue() != checksum) return null;
+
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int studentCount = (int) version.getStudents();
+        int[][] studentColumns = new int[6][];
+        for (int c = 0; c < studentColumns.length; c++) {
+            studentColumns[c] = readInts(buffer, studentCount);
+        }
+        List<Student> students = new ArrayList<>(studentCount);
+        for (int i = 0; i < studentCount; i++) {
+            students.add(new Student(string(strings, studentColumns[0][i]), string(strings, studentColumns[1][i]),
+                    string(strings, studentColumns[2][i]), string(strings, studentColumns[3][i]),
+                    string(strings, studentColumns[4][i]), string(strings, studentColumns[5][i])));
+        }
+
+        int attemptCount = (int) version.getAttempts();
+        long[] ids = new long[attemptCount];
+        buffer.asLongBuffer().get(ids);
+        buffer.position(buffer.position() + attemptCount * 8);
+        int[] studentIds = readInts(buffer, attemptCount);
+        int[] nptelIds = readInts(buffer, attemptCount);
+        int[] courseNames = readInts(buffer, attemptCount);
+        int[] examDays = readInts(buffer, attemptCount);
+        int[] scores = readInts(buffer, attemptCount);
+        byte[] semesters = new byte[attemptCount];
+        buffer.get(semesters);
+        byte[] statuses = new byte[attemptCount];
+        buffer.get(statuses);
+
+        // Exam dates repeat as much as the strings do, so they are shared the same way
+        Map<Integer, LocalDate> dates = new HashMap<>();
+        List<Attempt> attempts = new ArrayList<>(attemptCount);
+        for (int i = 0; i < attemptCount; i++) {
+            LocalDate examDate = examDays[i] == NO_DATE ? null
+                    : dates.computeIfAbsent(examDays[i], LocalDate::ofEpochDay);
+            attempts.add(new Attempt(ids[i], string(strings, studentIds[i]), string(strings, nptelIds[i]),
+                    string(strings, courseNames[i]), examDate, scores[i],
+                    semesters[i] == NO_VALUE ? null : Semester.of(semesters[i]),
+                    statuses[i] == NO_VALUE ? null : Status.fromFlags(statuses[i])));
+        }
+        return new DatasetSnapshot(version, students, attempts);
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * 4);
+        return values;
+    }
+
+    private static String string(String[] strings, int ref) {
+        return ref == NO_STRING ? null : strings[ref];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+
+/**
+ * Notices when something holds up the Event Dispatch Thread. Every PROBE_INTERVAL_MS
+ * it posts an empty event and times how long the EDT takes to run it; if that passes
+ * STALL_MS it logs the EDT's stack at that moment, which shows what is blocking it.
+ * Every probe's delay is recorded in {@link Metrics}.
+ */
+public class EdtWatchdog implements Runnable {
+
+    private static final long PROBE_INTERVAL_MS = 100;
+    private static final long STALL_MS = 200;
+    // Frames of the blocked EDT's stack to log
+    private static final int STACK_DEPTH = 12;
+
+    private volatile Thread edt;
+
+    public static void start() {
+        Thread thread = new Thread(new EdtWatchdog(), "edt-watchdog");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                probe();
+                Thread.sleep(PROBE_INTERVAL_MS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void probe() throws InterruptedException {
+        Object ran = new Object();
+        boolean[] done = {false};
+        long posted = System.nanoTime();
+        SwingUtilities.invokeLater(() -> {
+            edt = Thread.currentThread();
+            synchronized (ran) {
+                done[0] = true;
+                ran.notifyAll();
+            }
+        });
+
+        long stallAt = posted + TimeUnit.MILLISECONDS.toNanos(STALL_MS);
+        synchronized (ran) {
+            long left;
+            while (!done[0] && (left = stallAt - System.nanoTime()) > 0) {
+                ran.wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(left)));
+            }
+            if (!done[0]) {
+                logStall();
+                while (!done[0]) {
+                    ran.wait();
+                }
+            }
+        }
+        long waited = System.nanoTime() - posted;
+        Metrics.get().recordEdtDelay(waited, waited >= TimeUnit.MILLISECONDS.toNanos(STALL_MS));
+    }
+
+    private void logStall() {
+        Thread thread = edt;
+        StringBuilder message = new StringBuilder("EDT blocked for over " + STALL_MS + " ms");
+        if (thread != null) {
+            StackTraceElement[] stack = thread.getStackTrace();
+            for (int i = 0; i < Math.min(STACK_DEPTH, stack.length); i++) {
+                message.append("\n    at ").append(stack[i]);
+            }
+        }
+        System.err.println(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,42 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out one shared instance per distinct value, so rows that repeat a value
+ * (a semester, a status, a course name) all point at the same object instead of
+ * each holding its own copy. The pool stops growing at {@code maxSize} values;
+ * after that, values it has not seen are returned as they are.
+ *
+ * Not thread-safe; DataManager only touches its pools under its own lock.
+ */
+public class InternPool<T> {
+
+    private final Map<T, T> values = new HashMap<>();
+    private final int maxSize;
+
+    public InternPool(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return the pooled instance equal to {@code value}, or {@code value} itself if
+     * it is new (and now pooled, if there was room) or null
+     */
+    public T intern(T value) {
+        if (value == null) return null;
+        T pooled = values.get(value);
+        if (pooled != null) return pooled;
+        if (values.size() < maxSize) {
+            values.put(value, value);
+        }
+        return value;
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    public void clear() {
+        values.clear();
+    }
+}
\ No newline at end of file
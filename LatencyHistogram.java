@@ -0,0 +1,77 @@
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call latencies in power-of-two microsecond buckets: bucket b counts calls that took
+ * [2^(b-1), 2^b) us, bucket 0 those under 1 us. Percentiles are read back as a bucket's
+ * upper bound, so they are accurate to within a factor of two, which is enough to tell
+ * a slow path from a fast one. Safe to record into from many threads.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        long micros = nanos / 1000;
+        int bucket = micros == 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        counts[bucket].increment();
+        calls.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int b = 0; b < BUCKETS; b++) {
+            counts[b].add(other.counts[b].sum());
+        }
+        calls.add(other.calls.sum());
+        totalNanos.add(other.totalNanos.sum());
+        maxNanos.accumulate(other.maxNanos.get());
+    }
+
+    public void reset() {
+        for (LongAdder count : counts) count.reset();
+        calls.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    // Getters
+    public long getCalls() { return calls.sum(); }
+    public long getTotalNanos() { return totalNanos.sum(); }
+    public long getMaxNanos() { return maxNanos.get(); }
+    public long getCount(int bucket) { return counts[bucket].sum(); }
+    public int getBucketCount() { return BUCKETS; }
+
+    /** @return the upper bound in microseconds of the bucket b, as used by getCount */
+    public static long bucketLimitMicros(int bucket) {
+        return 1L << bucket;
+    }
+
+    public double getMeanMicros() {
+        long n = getCalls();
+        return n == 0 ? 0 : getTotalNanos() / 1e3 / n;
+    }
+
+    /** @return the upper bound in microseconds of the bucket holding the given fraction of calls */
+    public long percentileMicros(double fraction) {
+        long target = Math.max(1, (long) Math.ceil(fraction * getCalls()));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += counts[b].sum();
+            if (seen >= target) return bucketLimitMicros(b);
+        }
+        return 0;
+    }
+}
\ No newline at end of file
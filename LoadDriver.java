@@ -0,0 +1,234 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Replays a mixed read / write workload against a database from many threads and
+ * reports, per operation type, throughput, a latency histogram, the calls that hit
+ * SQLITE_BUSY / SQLITE_LOCKED, the write transactions retried because of it and the
+ * times a thread had to wait for the DataManager lock.
+ *
+ * By default each thread has its own DataManager (and so its own connection), the
+ * way several copies of the app would share one database file; with "shared" all
+ * threads go through one instance. The database should already hold data, see
+ * DatasetGenerator; the driver adds and removes only its own attempts.
+ *
+ * Usage: java -cp .;sqlite-jdbc-3.51.0.0.jar LoadDriver threads seconds [shared] [jdbc url]
+ */
+public class LoadDriver {
+
+    private enum Operation {
+        // Relative weights: mostly reads, as in the app
+        FIND_STUDENT(25), STUDENT_ATTEMPTS(15), FILTER_PAGE(15), FILTER_STATS(10), SEARCH(10),
+        BATCH_SUMMARY(5), SEMESTER_SUMMARY(5), ADD_ATTEMPT(10), DELETE_ATTEMPT(5);
+
+        final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final String[] SEARCH_TEXTS = {"learn", "noc24", "java", "kumar", "cs46", "sys"};
+    private static final String[] SEMESTERS = {"1", "2", "3", "4", "5", "6", "7", "8"};
+    private static final String[] BATCHES = {"2021", "2022", "2023", "2024", "2025"};
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * One operation type's results on one thread, or all threads once merged.
+     */
+    private static class OperationResult {
+        final LatencyHistogram latency = new LatencyHistogram();
+        long busy, retries, blocked;
+
+        void add(OperationResult other) {
+            latency.add(other.latency);
+            busy += other.busy;
+            retries += other.retries;
+            blocked += other.blocked;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: LoadDriver threads seconds [shared] [jdbc url]");
+            return;
+        }
+        int threads = Integer.parseInt(args[0]);
+        long seconds = Long.parseLong(args[1]);
+        boolean shared = args.length > 2 && "shared".equals(args[2]);
+        String dbUrl = args.length > 3 ? args[3] : "jdbc:sqlite:nptel_tracker.db";
+
+        // Owners for the attempts the driver adds
+        DataManager setup = new DataManager(dbUrl);
+        List<Student> students = setup.getStudents();
+        if (students.isEmpty()) {
+            System.out.println("No students in " + dbUrl + "; populate it with DatasetGenerator first");
+            setup.close();
+            return;
+        }
+        DataManager sharedManager = shared ? setup : null;
+        if (!shared) setup.close();
+        if (THREADS.isThreadContentionMonitoringSupported()) {
+            THREADS.setThreadContentionMonitoringEnabled(true);
+        }
+
+        List<OperationResult[]> results = new ArrayList<>();
+        List<Thread> workers = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            OperationResult[] threadResults = new OperationResult[Operation.values().length];
+            for (int o = 0; o < threadResults.length; o++) threadResults[o] = new OperationResult();
+            results.add(threadResults);
+            long seed = t;
+            Thread worker = new Thread(() -> {
+                DataManager dataManager = shared ? sharedManager : new DataManager(dbUrl);
+                try {
+                    start.await();
+                    runWorker(dataManager, seed, students, seconds, threadResults);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    if (!shared) dataManager.close();
+                }
+            }, "load-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) worker.join();
+        double elapsed = (System.nanoTime() - began) / 1e9;
+        if (shared) sharedManager.close();
+
+        report(results, threads, shared, elapsed);
+    }
+
+    private static void runWorker(DataManager dataManager, long seed, List<Student> students,
+                                  long seconds, OperationResult[] results) {
+        DatasetGenerator generator = new DatasetGenerator(seed);
+        Random random = new Random(seed);
+        List<Long> added = new ArrayList<>();
+        int totalWeight = 0;
+        for (Operation operation : Operation.values()) totalWeight += operation.weight;
+        long threadId = Thread.currentThread().getId();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+
+        while (System.nanoTime() < end) {
+            Operation operation = pick(random.nextInt(totalWeight));
+            if (operation == Operation.DELETE_ATTEMPT && added.isEmpty()) {
+                operation = Operation.ADD_ATTEMPT;
+            }
+            OperationResult result = results[operation.ordinal()];
+
+            long busyBefore = dataManager.getBusyFailureCount();
+            long retriesBefore = dataManager.getWriteRetryCount();
+            long blockedBefore = blockedCount(threadId);
+            long started = System.nanoTime();
+            run(operation, dataManager, generator, students, random, added);
+            result.latency.record(System.nanoTime() - started);
+            result.busy += dataManager.getBusyFailureCount() - busyBefore;
+            result.retries += dataManager.getWriteRetryCount() - retriesBefore;
+            result.blocked += blockedCount(threadId) - blockedBefore;
+        }
+    }
+
+    private static void run(Operation operation, DataManager dataManager, DatasetGenerator generator,
+                            List<Student> students, Random random, List<Long> added) {
+        Student student = students.get(random.nextInt(students.size()));
+        switch (operation) {
+            case FIND_STUDENT:
+                dataManager.findStudentById(student.getId());
+                break;
+            case STUDENT_ATTEMPTS:
+                dataManager.getAttemptsForStudent(student.getId());
+                break;
+            case FILTER_PAGE:
+                dataManager.queryAttemptsPage(randomFilter(random, null), 0, 0, 100);
+                break;
+            case FILTER_STATS:
+                dataManager.attemptStats(randomFilter(random, null));
+                break;
+            case SEARCH:
+                String text = SEARCH_TEXTS[random.nextInt(SEARCH_TEXTS.length)];
+                dataManager.searchAttempts(randomFilter(random, text), 500, () -> false);
+                break;
+            case BATCH_SUMMARY:
+                dataManager.batchSummary();
+                break;
+            case SEMESTER_SUMMARY:
+                dataManager.semesterSummary();
+                break;
+            case ADD_ATTEMPT:
+                Attempt attempt = generator.nextAttempt(student);
+                if (dataManager.addAttempt(attempt)) added.add(attempt.getId());
+                break;
+            case DELETE_ATTEMPT:
+                dataManager.deleteAttempt(added.remove(added.size() - 1));
+                break;
+        }
+    }
+
+    private static Operation pick(int roll) {
+        for (Operation operation : Operation.values()) {
+            roll -= operation.weight;
+            if (roll < 0) return operation;
+        }
+        throw new IllegalStateException();
+    }
+
+    private static AttemptFilter randomFilter(Random random, String searchText) {
+        String semester = random.nextBoolean() ? SEMESTERS[random.nextInt(SEMESTERS.length)] : null;
+        String batch = random.nextBoolean() ? BATCHES[random.nextInt(BATCHES.length)] : null;
+        return new AttemptFilter(semester, batch, null, searchText);
+    }
+
+    private static long blockedCount(long threadId) {
+        ThreadInfo info = THREADS.getThreadInfo(threadId);
+        return info == null ? 0 : info.getBlockedCount();
+    }
+
+    // --- Report ---
+
+    private static void report(List<OperationResult[]> results, int threads, boolean shared, double elapsed) {
+        Operation[] operations = Operation.values();
+        OperationResult[] totals = new OperationResult[operations.length];
+        for (int o = 0; o < operations.length; o++) {
+            totals[o] = new OperationResult();
+            for (OperationResult[] threadResults : results) totals[o].add(threadResults[o]);
+        }
+
+        System.out.printf(Locale.ROOT, "%d threads, %s, %.1fs%n%n", threads,
+                shared ? "one shared DataManager" : "one DataManager per thread", elapsed);
+        System.out.printf("%-17s %10s %10s %10s %10s %10s %10s %10s %10s%n",
+                "operation", "calls", "ops/s", "mean us", "p50 us<", "p99 us<", "busy", "retries", "blocked");
+        for (int o = 0; o < operations.length; o++) {
+            OperationResult total = totals[o];
+            LatencyHistogram latency = total.latency;
+            if (latency.getCalls() == 0) continue;
+            System.out.printf(Locale.ROOT, "%-17s %10d %10.1f %10.1f %10d %10d %10d %10d %10d%n",
+                    operations[o], latency.getCalls(), latency.getCalls() / elapsed, latency.getMeanMicros(),
+                    latency.percentileMicros(0.50), latency.percentileMicros(0.99), total.busy, total.retries, total.blocked);
+        }
+
+        System.out.println();
+        System.out.println("Latency histogram (calls per bucket, us upper bound)");
+        for (int o = 0; o < operations.length; o++) {
+            LatencyHistogram latency = totals[o].latency;
+            if (latency.getCalls() == 0) continue;
+            StringBuilder line = new StringBuilder(String.format("%-17s", operations[o]));
+            for (int b = 0; b < latency.getBucketCount(); b++) {
+                if (latency.getCount(b) > 0) {
+                    line.append(' ').append(LatencyHistogram.bucketLimitMicros(b)).append(':').append(latency.getCount(b));
+                }
+            }
+            System.out.println(line);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+/**
+ * The JMX view of {@link Metrics}, registered as "NptelTracker:type=Metrics".
+ */
+public interface MetricsMBean {
+
+    long getSlowCallThresholdMillis();
+
+    void setSlowCallThresholdMillis(long millis);
+
+    long getSlowCalls();
+
+    long getFailedStatements();
+
+    long getBusyFailures();
+
+    /** @return write transactions started over because another connection held the lock */
+    long getWriteRetries();
+
+    long getEdtStalls();
+
+    /** @return one line per timed operation: calls, rows, mean / p50 / p99 / max latency */
+    String[] getOperations();
+
+    /** @return the same lines as a printable table */
+    String report();
+
+    void reset();
+}
\ No newline at end of file
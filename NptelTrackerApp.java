@@ -1,15 +1,22 @@
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 
@@ -21,27 +28,56 @@ public class NptelTrackerApp extends JFrame {
     private static final Color LIGHT_BG_COLOR = new Color(255, 255, 255, 242);
     private static final Color HEADER_COLOR = new Color(102, 126, 234);
 
-    // Data Manager
-    private final DataManager dataManager = new DataManager();
+    // Search box: wait this long after the last keystroke, then show at most this many matches
+    private static final int SEARCH_DELAY_MS = 150;
+    private static final int SEARCH_RESULT_LIMIT = 500;
+
+    // Data Manager (cached in memory; writes go through to SQLite), opened before the UI
+    private final DataManager dataManager;
+    private final ReportEngine reports;
+    // Read-only HTTP API over the same data, if nptel.apiPort is set; otherwise null
+    private final ApiServer apiServer;
 
     // UI Components
     private JTable studentsTable, attemptsTable, filteredTable, batchSummaryTable, semesterSummaryTable;
-    private DefaultTableModel studentsModel, attemptsModel, filteredModel, batchSummaryModel, semesterSummaryModel;
+    private DefaultTableModel studentsModel, batchSummaryModel, semesterSummaryModel;
+    private PagedAttemptTableModel attemptsModel, filteredModel;
+    private AttemptListTableModel searchResultsModel;
     private JComboBox<Student> attemptStudentIdCombo;
     private JComboBox<String> filterSemesterCombo, filterBatchCombo, filterStatusCombo;
     private JTextField studentIdField, studentNameField, emailField, departmentField;
     private JComboBox<String> batchCombo, currentSemesterCombo;
     private JTextField nptelIdField, courseNameField, scoreField, examDateField;
-    private JComboBox<String> semesterCombo, statusCombo;
-    private JTextField searchNptelField;
+    private JComboBox<Semester> semesterCombo;
+    private JComboBox<Status> statusCombo;
+    private JTextField searchField, examFromField, examToField;
+    private Timer searchDelay;
+    private SwingWorker<List<AttemptRow>, Void> searchWorker;
     private JLabel totalStudentsLabel, totalExamAttemptsLabel, overallPassRateLabel, totalEliteLabel;
     private JLabel totalAttemptsFilteredLabel, passRateFilteredLabel, avgScoreFilteredLabel, eliteCountFilteredLabel;
+    private JLabel statusLabel;
+
+    // Background database work: the latest request per key, and how many are still running
+    private final Map<String, SwingWorker<?, ?>> latestTasks = new HashMap<>();
+    private int runningTasks;
+    private boolean closing;
 
-    public NptelTrackerApp() {
+    public NptelTrackerApp(DataManager dataManager, ApiServer apiServer) {
         super("🎓 NPTEL Exam Student Tracker");
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        this.dataManager = dataManager;
+        this.reports = new ReportEngine(dataManager);
+        this.apiServer = apiServer;
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
         setSize(1200, 800);
         setLocationRelativeTo(null); // Center the frame
+
+        // Release the shared database connection before the JVM exits
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                closeInBackground();
+            }
+        });
         
         // Main container
         JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
@@ -78,7 +114,16 @@ public class NptelTrackerApp extends JFrame {
 
 
         mainPanel.add(tabbedPane, BorderLayout.CENTER);
+
+        // Status bar, shows when database work is running in the background
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        statusLabel.setForeground(DARK_TEXT_COLOR);
+        mainPanel.add(statusLabel, BorderLayout.SOUTH);
         
+        // Keep the tables and combo box in step with each insert or delete
+        dataManager.addDataChangeListener(event -> SwingUtilities.invokeLater(() -> applyDataChange(event)));
+
         // Load all existing data from the database into the UI on startup
         refreshStudentsTable();
         refreshAttemptsTable();
@@ -170,8 +215,8 @@ public class NptelTrackerApp extends JFrame {
         examDateField = new JTextField(15);
         examDateField.setText("YYYY-MM-DD");
         scoreField = new JTextField(15);
-        semesterCombo = new JComboBox<>(new String[]{"1", "2", "3", "4", "5", "6", "7", "8"});
-        statusCombo = new JComboBox<>(new String[]{"Pass", "Fail", "Elite", "Elite + Gold"});
+        semesterCombo = new JComboBox<>(Semester.values());
+        statusCombo = new JComboBox<>(Status.values());
 
         gbc.gridx = 0; gbc.gridy = 0; formPanel.add(new JLabel("Select Student:"), gbc);
         gbc.gridx = 1; gbc.gridwidth=3; formPanel.add(attemptStudentIdCombo, gbc);
@@ -207,9 +252,11 @@ public class NptelTrackerApp extends JFrame {
         
         // Table
         String[] attemptColumns = {"Student ID", "NPTEL ID", "Course", "Date", "Score", "Semester", "Status"};
-        attemptsModel = new DefaultTableModel(attemptColumns, 0) {
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        // Rows are paged in from the database as the table scrolls
+        attemptsModel = new PagedAttemptTableModel(dataManager, attemptColumns, row -> {
+            Attempt a = row.getAttempt();
+            return new Object[]{a.getStudentId(), a.getNptelId(), a.getCourseName(), a.getExamDate(), a.getScore(), a.getSemester(), a.getStatus()};
+        }, this::showDatabaseError);
         attemptsTable = new JTable(attemptsModel);
         styleTable(attemptsTable);
         panel.add(new JScrollPane(attemptsTable), BorderLayout.CENTER);
@@ -232,7 +279,12 @@ public class NptelTrackerApp extends JFrame {
         filterSemesterCombo = new JComboBox<>(new String[]{"All", "1", "2", "3", "4", "5", "6", "7", "8"});
         filterBatchCombo = new JComboBox<>(new String[]{"All", "2021", "2022", "2023", "2024"});
         filterStatusCombo = new JComboBox<>(new String[]{"All", "Pass", "Fail", "Elite", "Elite + Gold"});
-        searchNptelField = new JTextField(15);
+        searchField = new JTextField(15);
+        searchField.setToolTipText("NPTEL ID, course or student name");
+        examFromField = new JTextField(8);
+        examFromField.setToolTipText("YYYY-MM-DD, blank for no limit");
+        examToField = new JTextField(8);
+        examToField.setToolTipText("YYYY-MM-DD, blank for no limit");
         JButton applyButton = createStyledButton("Apply Filters", PRIMARY_COLOR);
         JButton clearButton = createStyledButton("Clear Filters", Color.GRAY);
         
@@ -242,8 +294,12 @@ public class NptelTrackerApp extends JFrame {
         filterControls.add(filterBatchCombo);
         filterControls.add(new JLabel("Status:"));
         filterControls.add(filterStatusCombo);
-        filterControls.add(new JLabel("NPTEL ID:"));
-        filterControls.add(searchNptelField);
+        filterControls.add(new JLabel("Exam from:"));
+        filterControls.add(examFromField);
+        filterControls.add(new JLabel("to:"));
+        filterControls.add(examToField);
+        filterControls.add(new JLabel("Search:"));
+        filterControls.add(searchField);
         filterControls.add(applyButton);
         filterControls.add(clearButton);
         
@@ -265,10 +321,9 @@ public class NptelTrackerApp extends JFrame {
         panel.add(topPanel, BorderLayout.NORTH);
 
         // Table
-        String[] filteredColumns = {"Student ID", "Student Name", "NPTEL ID", "Course", "Date", "Score", "Semester", "Status", "Batch"};
-        filteredModel = new DefaultTableModel(filteredColumns, 0){
-            @Override public boolean isCellEditable(int row, int column) { return false; }
-        };
+        filteredModel = new PagedAttemptTableModel(dataManager, ReportEngine.FILTERED_COLUMNS, ReportEngine::filteredRow,
+                this::showDatabaseError);
+        searchResultsModel = new AttemptListTableModel(ReportEngine.FILTERED_COLUMNS, ReportEngine::filteredRow);
         filteredTable = new JTable(filteredModel);
         styleTable(filteredTable);
         panel.add(new JScrollPane(filteredTable), BorderLayout.CENTER);
@@ -277,6 +332,15 @@ public class NptelTrackerApp extends JFrame {
         applyButton.addActionListener(e -> applyFilters());
         clearButton.addActionListener(e -> clearFilters());
 
+        // Search as you type, once typing pauses
+        searchDelay = new Timer(SEARCH_DELAY_MS, e -> applyFilters());
+        searchDelay.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { searchDelay.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { searchDelay.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { searchDelay.restart(); }
+        });
+
         return panel;
     }
     
@@ -304,8 +368,10 @@ public class NptelTrackerApp extends JFrame {
         JPanel exportPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 10));
         JButton exportStudentsBtn = createStyledButton("📥 Export Students CSV", new Color(40, 167, 69));
         JButton exportAttemptsBtn = createStyledButton("📥 Export Attempts CSV", new Color(40, 167, 69));
+        JButton rebuildSummariesBtn = createStyledButton("🔄 Rebuild Summaries", Color.GRAY);
         exportPanel.add(exportStudentsBtn);
         exportPanel.add(exportAttemptsBtn);
+        exportPanel.add(rebuildSummariesBtn);
         topPanel.add(exportPanel, BorderLayout.CENTER);
 
         panel.add(topPanel, BorderLayout.NORTH);
@@ -317,8 +383,7 @@ public class NptelTrackerApp extends JFrame {
         // Batch Summary
         JPanel batchPanel = new JPanel(new BorderLayout());
         batchPanel.setBorder(BorderFactory.createTitledBorder("Batch-wise Summary"));
-        String[] batchColumns = {"Batch", "Students", "Attempts", "Passed", "Elite", "Pass Rate"};
-        batchSummaryModel = new DefaultTableModel(batchColumns, 0){
+        batchSummaryModel = new DefaultTableModel(ReportEngine.BATCH_COLUMNS, 0){
             @Override public boolean isCellEditable(int row, int column) { return false; }
         };
         batchSummaryTable = new JTable(batchSummaryModel);
@@ -329,8 +394,7 @@ public class NptelTrackerApp extends JFrame {
         // Semester Summary
         JPanel semesterPanel = new JPanel(new BorderLayout());
         semesterPanel.setBorder(BorderFactory.createTitledBorder("Semester-wise Performance"));
-        String[] semesterColumns = {"Semester", "Attempts", "Passed", "Elite", "Pass Rate", "Avg Score"};
-        semesterSummaryModel = new DefaultTableModel(semesterColumns, 0){
+        semesterSummaryModel = new DefaultTableModel(ReportEngine.SEMESTER_COLUMNS, 0){
              @Override public boolean isCellEditable(int row, int column) { return false; }
         };
         semesterSummaryTable = new JTable(semesterSummaryModel);
@@ -341,8 +405,12 @@ public class NptelTrackerApp extends JFrame {
         panel.add(splitPane, BorderLayout.CENTER);
 
         // Action Listeners
-        exportStudentsBtn.addActionListener(e -> exportToCSV(studentsTable, "students"));
-        exportAttemptsBtn.addActionListener(e -> exportToCSV(attemptsTable, "attempts"));
+        CsvExporter exporter = new CsvExporter(dataManager);
+        exportStudentsBtn.addActionListener(e -> exportToCSV("students",
+            (file, progress, cancelled) -> exporter.exportStudents(file.toPath(), progress, cancelled)));
+        exportAttemptsBtn.addActionListener(e -> exportToCSV("attempts",
+            (file, progress, cancelled) -> exporter.exportAttempts(file.toPath(), AttemptFilter.all(), progress, cancelled)));
+        rebuildSummariesBtn.addActionListener(e -> rebuildSummaries());
         
         return panel;
     }
@@ -416,14 +484,14 @@ public class NptelTrackerApp extends JFrame {
             (String) currentSemesterCombo.getSelectedItem()
         );
         
-        if (dataManager.addStudent(newStudent)) {
-            JOptionPane.showMessageDialog(this, "Student added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            refreshStudentsTable();
-            updateStudentComboBox();
-            clearStudentForm();
-        } else {
-            JOptionPane.showMessageDialog(this, "Student ID already exists.", "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        runInBackground(() -> dataManager.addStudent(newStudent), added -> {
+            if (added) {
+                JOptionPane.showMessageDialog(this, "Student added successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                clearStudentForm();
+            } else {
+                JOptionPane.showMessageDialog(this, "Student ID already exists.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
     }
     
     private void deleteStudentAction(ActionEvent e) {
@@ -432,14 +500,22 @@ public class NptelTrackerApp extends JFrame {
             JOptionPane.showMessageDialog(this, "Please select a student to delete.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        String studentId = (String) studentsModel.getValueAt(selectedRow, 0);
+        // The student as shown, so the delete is refused if someone else has changed them
+        Student shown = new Student((String) studentsModel.getValueAt(selectedRow, 0),
+                (String) studentsModel.getValueAt(selectedRow, 1), (String) studentsModel.getValueAt(selectedRow, 2),
+                (String) studentsModel.getValueAt(selectedRow, 3), (String) studentsModel.getValueAt(selectedRow, 4),
+                (String) studentsModel.getValueAt(selectedRow, 5));
         int choice = JOptionPane.showConfirmDialog(this, "Are you sure you want to delete this student and all their attempts?", "Confirm Deletion", JOptionPane.YES_NO_OPTION);
         if (choice == JOptionPane.YES_OPTION) {
-            dataManager.deleteStudent(studentId);
-            refreshStudentsTable();
-            refreshAttemptsTable();
-            updateStudentComboBox();
-            JOptionPane.showMessageDialog(this, "Student deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+            runInBackground(() -> dataManager.deleteStudent(shown), deleted -> {
+                if (deleted) {
+                    JOptionPane.showMessageDialog(this, "Student deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "This student was changed or deleted by another user. The list has been reloaded.", "Error", JOptionPane.ERROR_MESSAGE);
+                    refreshStudentsTable();
+                    refreshAttemptsTable();
+                }
+            });
         }
     }
 
@@ -460,14 +536,18 @@ public class NptelTrackerApp extends JFrame {
                 courseNameField.getText().trim(),
                 date,
                 score,
-                (String) semesterCombo.getSelectedItem(),
-                (String) statusCombo.getSelectedItem()
+                (Semester) semesterCombo.getSelectedItem(),
+                (Status) statusCombo.getSelectedItem()
             );
 
-            dataManager.addAttempt(newAttempt);
-            JOptionPane.showMessageDialog(this, "Attempt logged successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            refreshAttemptsTable();
-            clearAttemptForm();
+            runInBackground(() -> dataManager.addAttempt(newAttempt), added -> {
+                if (added) {
+                    JOptionPane.showMessageDialog(this, "Attempt logged successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    clearAttemptForm();
+                } else {
+                    JOptionPane.showMessageDialog(this, "Attempt could not be saved.", "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            });
 
         } catch (DateTimeParseException ex) {
             JOptionPane.showMessageDialog(this, "Invalid date format. Please use YYYY-MM-DD.", "Error", JOptionPane.ERROR_MESSAGE);
@@ -482,132 +562,164 @@ public class NptelTrackerApp extends JFrame {
             JOptionPane.showMessageDialog(this, "Please select an attempt to delete.", "Error", JOptionPane.ERROR_MESSAGE);
             return;
         }
-        // Get the Attempt object from the underlying list, using the view-to-model row index
-        Attempt attemptToDelete = dataManager.getAttempts().get(attemptsTable.convertRowIndexToModel(selectedRow));
+        // The selected row is on screen, so its page is loaded
+        AttemptRow rowToDelete = attemptsModel.getRowAt(attemptsTable.convertRowIndexToModel(selectedRow));
+        if (rowToDelete == null) {
+            JOptionPane.showMessageDialog(this, "The selected attempt is still loading. Please try again.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        Attempt shown = rowToDelete.getAttempt();
         
-        dataManager.deleteAttempt(attemptToDelete.getId());
-        refreshAttemptsTable();
-        JOptionPane.showMessageDialog(this, "Attempt deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+        runInBackground(() -> dataManager.deleteAttempt(shown), deleted -> {
+            if (deleted) {
+                JOptionPane.showMessageDialog(this, "Attempt deleted successfully.", "Success", JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "This attempt was changed or deleted by another user. The list has been reloaded.", "Error", JOptionPane.ERROR_MESSAGE);
+                refreshStudentsTable();
+                refreshAttemptsTable();
+            }
+        });
     }
     
     private void applyFilters() {
-        String semester = (String) filterSemesterCombo.getSelectedItem();
-        String batch = (String) filterBatchCombo.getSelectedItem();
-        String status = (String) filterStatusCombo.getSelectedItem();
-        String nptelId = searchNptelField.getText().trim().toLowerCase();
-
-        List<Attempt> filtered = dataManager.getAttempts().stream()
-            .filter(a -> "All".equals(semester) || a.getSemester().equals(semester))
-            .filter(a -> "All".equals(status) || a.getStatus().equals(status))
-            .filter(a -> nptelId.isEmpty() || a.getNptelId().toLowerCase().contains(nptelId))
-            .filter(a -> {
-                if ("All".equals(batch)) return true;
-                return dataManager.findStudentById(a.getStudentId())
-                    .map(s -> s.getBatch().equals(batch))
-                    .orElse(false);
-            })
-            .collect(Collectors.toList());
-
-        // Update table
-        filteredModel.setRowCount(0);
-        for (Attempt a : filtered) {
-            Student s = dataManager.findStudentById(a.getStudentId()).orElse(null);
-            filteredModel.addRow(new Object[]{
-                a.getStudentId(),
-                s != null ? s.getName() : "Unknown",
-                a.getNptelId(),
-                a.getCourseName(),
-                a.getExamDate(),
-                a.getScore(),
-                a.getSemester(),
-                a.getStatus(),
-                s != null ? s.getBatch() : "Unknown"
-            });
+        LocalDate examFrom, examTo;
+        try {
+            examFrom = parseOptionalDate(examFromField.getText());
+            examTo = parseOptionalDate(examToField.getText());
+        } catch (DateTimeParseException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid exam date. Please use YYYY-MM-DD.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
         }
-        
-        // Update stats
-        long passedCount = filtered.stream().filter(a -> !a.getStatus().equals("Fail")).count();
-        long eliteCount = filtered.stream().filter(a -> a.getStatus().contains("Elite")).count();
-        double avgScore = filtered.stream().mapToInt(Attempt::getScore).average().orElse(0.0);
-        
-        totalAttemptsFilteredLabel.setText(String.valueOf(filtered.size()));
-        passRateFilteredLabel.setText(filtered.isEmpty() ? "0%" : String.format("%.0f%%", (double) passedCount / filtered.size() * 100));
-        avgScoreFilteredLabel.setText(String.format("%.1f", avgScore));
-        eliteCountFilteredLabel.setText(String.valueOf(eliteCount));
+        AttemptFilter filter = new AttemptFilter(
+            (String) filterSemesterCombo.getSelectedItem(),
+            (String) filterBatchCombo.getSelectedItem(),
+            (String) filterStatusCombo.getSelectedItem(),
+            searchField.getText(),
+            examFrom,
+            examTo
+        );
+
+        // With search text the table shows the best matches; otherwise it pages every
+        // matching attempt in itself. The stats always cover every match.
+        if (filter.getSearchText() != null) {
+            searchAttempts(filter);
+        } else {
+            if (searchWorker != null) searchWorker.cancel(false);
+            filteredTable.setModel(filteredModel);
+            filteredModel.setFilter(filter);
+        }
+        runInBackground("filter", () -> dataManager.attemptStats(filter), this::showFilterStats);
+    }
+
+    private static LocalDate parseOptionalDate(String text) {
+        return text.trim().isEmpty() ? null : LocalDate.parse(text.trim());
+    }
+
+    /**
+     * Fetches the ranked matches in the background, abandoning any search still running.
+     */
+    private void searchAttempts(AttemptFilter filter) {
+        if (searchWorker != null) {
+            searchWorker.cancel(false);
+        }
+        searchWorker = new SwingWorker<List<AttemptRow>, Void>() {
+            @Override
+            protected List<AttemptRow> doInBackground() {
+                return dataManager.searchAttempts(filter, SEARCH_RESULT_LIMIT, this::isCancelled);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) return;
+                try {
+                    searchResultsModel.setRows(get());
+                    filteredTable.setModel(searchResultsModel);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    showDatabaseError(ex.getCause());
+                }
+            }
+        };
+        searchWorker.execute();
+    }
+
+    private void showFilterStats(AttemptStats stats) {
+        totalAttemptsFilteredLabel.setText(String.valueOf(stats.getAttempts()));
+        passRateFilteredLabel.setText(String.format("%.0f%%", stats.getPassRate()));
+        avgScoreFilteredLabel.setText(String.format("%.1f", stats.getAverageScore()));
+        eliteCountFilteredLabel.setText(String.valueOf(stats.getElite()));
     }
     
     private void clearFilters() {
         filterSemesterCombo.setSelectedItem("All");
         filterBatchCombo.setSelectedItem("All");
         filterStatusCombo.setSelectedItem("All");
-        searchNptelField.setText("");
+        searchField.setText("");
+        examFromField.setText("");
+        examToField.setText("");
         applyFilters();
     }
 
+    /**
+     * Recomputes the report totals from the raw tables, for when they look wrong.
+     */
+    private void rebuildSummaries() {
+        runInBackground(dataManager::rebuildSummaries, rebuilt -> {
+            updateReportStats();
+            generateBatchSummary();
+            generateSemesterSummary();
+            if (!rebuilt) {
+                JOptionPane.showMessageDialog(this, "Could not rebuild the report summaries.", "Error", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+    }
+
     private void updateReportStats() {
-        int studentCount = dataManager.getStudents().size();
-        int attemptCount = dataManager.getAttempts().size();
-        long passedCount = dataManager.getAttempts().stream().filter(a -> !a.getStatus().equals("Fail")).count();
-        long eliteCount = dataManager.getAttempts().stream().filter(a -> a.getStatus().contains("Elite")).count();
+        runInBackground("reportStats", dataManager::overallStats, this::showReportStats);
+    }
+
+    private void showReportStats(SummaryRow overall) {
+        AttemptStats stats = overall.getStats();
 
-        totalStudentsLabel.setText(String.valueOf(studentCount));
-        totalExamAttemptsLabel.setText(String.valueOf(attemptCount));
-        overallPassRateLabel.setText(attemptCount == 0 ? "0%" : String.format("%.0f%%", (double)passedCount / attemptCount * 100));
-        totalEliteLabel.setText(String.valueOf(eliteCount));
+        totalStudentsLabel.setText(String.valueOf(overall.getStudents()));
+        totalExamAttemptsLabel.setText(String.valueOf(stats.getAttempts()));
+        overallPassRateLabel.setText(String.format("%.0f%%", stats.getPassRate()));
+        totalEliteLabel.setText(String.valueOf(stats.getElite()));
     }
 
     private void generateBatchSummary() {
+        runInBackground("batchSummary", reports::batchSummary, this::showBatchSummary);
+    }
+
+    private void showBatchSummary(List<Object[]> rows) {
         batchSummaryModel.setRowCount(0);
-        Map<String, List<Student>> studentsByBatch = dataManager.getStudents().stream()
-            .collect(Collectors.groupingBy(Student::getBatch));
-
-        studentsByBatch.keySet().stream().sorted().forEach(batch -> {
-            List<Student> batchStudents = studentsByBatch.get(batch);
-            List<Attempt> batchAttempts = dataManager.getAttempts().stream()
-                .filter(a -> batchStudents.stream().anyMatch(s -> s.getId().equals(a.getStudentId())))
-                .collect(Collectors.toList());
-            
-            long passed = batchAttempts.stream().filter(a -> !a.getStatus().equals("Fail")).count();
-            long elite = batchAttempts.stream().filter(a -> a.getStatus().contains("Elite")).count();
-            String passRate = batchAttempts.isEmpty() ? "0%" : String.format("%.0f%%", (double)passed / batchAttempts.size() * 100);
-
-            batchSummaryModel.addRow(new Object[]{
-                batch,
-                batchStudents.size(),
-                batchAttempts.size(),
-                passed,
-                elite,
-                passRate
-            });
-        });
+        // Straight from the BATCH_SUMMARY table, already sorted by batch
+        for (Object[] row : rows) {
+            row[5] = String.format("%.0f%%", (Double) row[5]);
+            batchSummaryModel.addRow(row);
+        }
     }
 
     private void generateSemesterSummary() {
+        runInBackground("semesterSummary", reports::semesterSummary, this::showSemesterSummary);
+    }
+
+    private void showSemesterSummary(List<Object[]> rows) {
         semesterSummaryModel.setRowCount(0);
-        Map<String, List<Attempt>> attemptsBySemester = dataManager.getAttempts().stream()
-            .collect(Collectors.groupingBy(Attempt::getSemester));
-        
-        for (int i=1; i<=8; i++) {
-            String sem = String.valueOf(i);
-            List<Attempt> semAttempts = attemptsBySemester.getOrDefault(sem, List.of());
-
-            long passed = semAttempts.stream().filter(a -> !a.getStatus().equals("Fail")).count();
-            long elite = semAttempts.stream().filter(a -> a.getStatus().contains("Elite")).count();
-            double avgScore = semAttempts.stream().mapToInt(Attempt::getScore).average().orElse(0.0);
-            String passRate = semAttempts.isEmpty() ? "0%" : String.format("%.0f%%", (double)passed / semAttempts.size() * 100);
-
-            semesterSummaryModel.addRow(new Object[]{
-                "Semester " + sem,
-                semAttempts.size(),
-                passed,
-                elite,
-                passRate,
-                String.format("%.1f%%", avgScore)
-            });
+        for (Object[] row : rows) {
+            row[0] = "Semester " + row[0];
+            row[4] = String.format("%.0f%%", (Double) row[4]);
+            row[5] = String.format("%.1f%%", (Double) row[5]);
+            semesterSummaryModel.addRow(row);
         }
     }
 
-    private void exportToCSV(JTable table, String fileNamePrefix) {
+    private interface ExportTask {
+        long run(File file, CsvExporter.ProgressListener progress, BooleanSupplier cancelled) throws IOException;
+    }
+
+    private void exportToCSV(String fileNamePrefix, ExportTask task) {
         JFileChooser fileChooser = new JFileChooser();
         fileChooser.setDialogTitle("Save CSV File");
         fileChooser.setSelectedFile(new File(fileNamePrefix + ".csv"));
@@ -615,57 +727,194 @@ public class NptelTrackerApp extends JFrame {
 
         if (userSelection == JFileChooser.APPROVE_OPTION) {
             File fileToSave = fileChooser.getSelectedFile();
-            try (FileWriter writer = new FileWriter(fileToSave)) {
-                // Write header
-                for (int i = 0; i < table.getColumnCount(); i++) {
-                    writer.append(escapeCsv(table.getColumnName(i)));
-                    if (i < table.getColumnCount() - 1) writer.append(",");
+            ProgressMonitor monitor = new ProgressMonitor(this, "Exporting " + fileToSave.getName(), "", 0, 100);
+
+            // Rows stream from the database to the file on a worker thread
+            SwingWorker<Long, Void> worker = new SwingWorker<Long, Void>() {
+                @Override
+                protected Long doInBackground() throws IOException {
+                    return task.run(fileToSave, (written, total) -> {
+                        setProgress(total == 0 ? 100 : (int) Math.min(100, written * 100 / total));
+                    }, this::isCancelled);
                 }
-                writer.append("\n");
 
-                // Write data
-                for (int i = 0; i < table.getRowCount(); i++) {
-                    for (int j = 0; j < table.getColumnCount(); j++) {
-                        writer.append(escapeCsv(table.getValueAt(i, j).toString()));
-                        if (j < table.getColumnCount() - 1) writer.append(",");
+                @Override
+                protected void done() {
+                    monitor.close();
+                    if (isCancelled()) {
+                        JOptionPane.showMessageDialog(NptelTrackerApp.this, "Export cancelled.", "Export", JOptionPane.INFORMATION_MESSAGE);
+                        return;
+                    }
+                    try {
+                        long rows = get();
+                        JOptionPane.showMessageDialog(NptelTrackerApp.this, "CSV file exported successfully! (" + rows + " rows)", "Success", JOptionPane.INFORMATION_MESSAGE);
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException ex) {
+                        JOptionPane.showMessageDialog(NptelTrackerApp.this, "Error exporting file: " + ex.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
                     }
-                    writer.append("\n");
                 }
-                JOptionPane.showMessageDialog(this, "CSV file exported successfully!", "Success", JOptionPane.INFORMATION_MESSAGE);
-            } catch (IOException ex) {
-                JOptionPane.showMessageDialog(this, "Error exporting file: " + ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
-            }
-        }
-    }
-
-    private String escapeCsv(String data) {
-        String escapedData = data.replaceAll("\\R", " ");
-        if (data.contains(",") || data.contains("\"") || data.contains("'")) {
-            escapedData = "\"" + escapedData.replace("\"", "\"\"") + "\"";
+            };
+            worker.addPropertyChangeListener(evt -> {
+                if ("progress".equals(evt.getPropertyName())) {
+                    monitor.setProgress((Integer) evt.getNewValue());
+                }
+                if (monitor.isCanceled()) {
+                    worker.cancel(false);
+                }
+            });
+            worker.execute();
         }
-        return escapedData;
     }
     
     // UI Helper and Refresh Methods
     private void refreshStudentsTable() {
-        studentsModel.setRowCount(0);
-        for (Student s : dataManager.getStudents()) {
-            studentsModel.addRow(new Object[]{s.getId(), s.getName(), s.getEmail(), s.getBatch(), s.getDepartment(), s.getCurrentSemester()});
-        }
+        runInBackground("students", dataManager::getStudents, students -> {
+            studentsModel.setRowCount(0);
+            for (Student s : students) {
+                studentsModel.addRow(studentRow(s));
+            }
+        });
     }
 
     private void refreshAttemptsTable() {
-        attemptsModel.setRowCount(0);
-        for (Attempt a : dataManager.getAttempts()) {
-            attemptsModel.addRow(new Object[]{a.getStudentId(), a.getNptelId(), a.getCourseName(), a.getExamDate(), a.getScore(), a.getSemester(), a.getStatus()});
-        }
+        attemptsModel.reload();
     }
 
     private void updateStudentComboBox() {
-        attemptStudentIdCombo.removeAllItems();
-        for (Student s : dataManager.getStudents()) {
-            attemptStudentIdCombo.addItem(s);
+        runInBackground("studentCombo", dataManager::getStudents, students -> {
+            attemptStudentIdCombo.removeAllItems();
+            for (Student s : students) {
+                attemptStudentIdCombo.addItem(s);
+            }
+        });
+    }
+
+    private Object[] studentRow(Student s) {
+        return new Object[]{s.getId(), s.getName(), s.getEmail(), s.getBatch(), s.getDepartment(), s.getCurrentSemester()};
+    }
+
+    /**
+     * Applies one insert or delete to the tables and the student combo box, touching
+     * only the affected row. Runs on the EDT. The Semester Filter and Reports tabs are
+     * not updated here; they re-query whenever they are selected.
+     */
+    private void applyDataChange(DataChangeEvent event) {
+        boolean insert = event.getType() == DataChangeEvent.Type.INSERT;
+        if (event.getEntity() == DataChangeEvent.Entity.STUDENT) {
+            if (insert) {
+                studentsModel.addRow(studentRow(event.getStudent()));
+                attemptStudentIdCombo.addItem(event.getStudent());
+            } else {
+                for (int i = 0; i < studentsModel.getRowCount(); i++) {
+                    if (event.getStudentId().equals(studentsModel.getValueAt(i, 0))) {
+                        studentsModel.removeRow(i);
+                        break;
+                    }
+                }
+                for (int i = 0; i < attemptStudentIdCombo.getItemCount(); i++) {
+                    if (event.getStudentId().equals(attemptStudentIdCombo.getItemAt(i).getId())) {
+                        attemptStudentIdCombo.removeItemAt(i);
+                        break;
+                    }
+                }
+                // Their attempts went with them (ON DELETE CASCADE)
+                attemptsModel.reload();
+            }
+        } else if (insert) {
+            attemptsModel.attemptInserted(event.getAttemptId());
+        } else {
+            attemptsModel.attemptDeleted(event.getAttemptId());
+        }
+    }
+
+    // Background Task Methods
+
+    /**
+     * Runs a database call off the event dispatch thread and hands its result to
+     * {@code onSuccess} back on the EDT. A newer request with the same key supersedes
+     * an older one: the older one is cancelled if it has not started, and its result
+     * is dropped if it has, so rapid tab switches only render the last request.
+     */
+    private <T> void runInBackground(String key, Callable<T> task, Consumer<T> onSuccess) {
+        SwingWorker<?, ?> previous = key == null ? null : latestTasks.get(key);
+        if (previous != null) {
+            previous.cancel(false);
         }
+
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return task.call();
+            }
+
+            @Override
+            protected void done() {
+                if (key != null) {
+                    latestTasks.remove(key, this);
+                }
+                runningTasks--;
+                updateLoadingState();
+                if (isCancelled()) return;
+                try {
+                    onSuccess.accept(get());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException ex) {
+                    showDatabaseError(ex.getCause());
+                }
+            }
+        };
+        if (key != null) {
+            latestTasks.put(key, worker);
+        }
+        runningTasks++;
+        updateLoadingState();
+        worker.execute();
+    }
+
+    /**
+     * Runs a one-off database call (typically a write) that must never be superseded.
+     */
+    private <T> void runInBackground(Callable<T> task, Consumer<T> onSuccess) {
+        runInBackground(null, task, onSuccess);
+    }
+
+    private void showDatabaseError(Throwable cause) {
+        JOptionPane.showMessageDialog(this, "Database error: " + cause.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Stops the API and closes the DataManager off the EDT, since closing a cache saves
+     * its snapshot (a journal catch-up and the whole dataset written out), then disposes
+     * the window and exits.
+     */
+    private void closeInBackground() {
+        if (closing) return;
+        closing = true;
+        statusLabel.setText("Saving...");
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                if (apiServer != null) apiServer.stop();
+                dataManager.close();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                dispose();
+                System.exit(0);
+            }
+        }.execute();
+    }
+
+    private void updateLoadingState() {
+        if (closing) return; // Keep showing that the app is saving
+        boolean loading = runningTasks > 0;
+        statusLabel.setText(loading ? "Loading..." : " ");
+        setCursor(loading ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
     }
     
     private void clearStudentForm() {
@@ -729,6 +978,24 @@ public class NptelTrackerApp extends JFrame {
             e.printStackTrace();
         }
 
-        SwingUtilities.invokeLater(() -> new NptelTrackerApp().setVisible(true));
+        // Timings over JMX, a periodic dump if asked for, and a log of EDT stalls
+        Metrics.get().register();
+        Metrics.get().startDumpFromProperties();
+        EdtWatchdog.start();
+
+        // Opening the database (and migrating its schema) and binding the API's port can
+        // take a while, so they run here on the main thread; only the UI is built on the EDT
+        DataManager dataManager;
+        try {
+            dataManager = new CachingDataManager();
+        } catch (IllegalStateException e) {
+            SwingUtilities.invokeLater(() -> {
+                JOptionPane.showMessageDialog(null, e.getMessage(), "Database Error", JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            });
+            return;
+        }
+        ApiServer apiServer = ApiServer.startFromProperties(dataManager);
+        SwingUtilities.invokeLater(() -> new NptelTrackerApp(dataManager, apiServer).setVisible(true));
     }
 }
\ No newline at end of file
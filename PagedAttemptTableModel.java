@@ -0,0 +1,237 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * A read-only TableModel over the attempts matching a filter that only holds the
+ * pages the user has scrolled to. Pages are fetched in the background as the table
+ * asks for their rows (cells show blank until they arrive) and kept in a small LRU
+ * cache, so memory and refresh time depend on the viewport rather than the table.
+ *
+ * Pages are located by keyset: once a page is loaded, the rowid of its last row is
+ * remembered as the start of the next page, so scrolling seeks straight to it instead
+ * of counting rows with OFFSET.
+ *
+ * A count or page that fails to load is handed to the error handler and shows as
+ * empty until the next reload.
+ */
+public class PagedAttemptTableModel extends AbstractTableModel {
+
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_PAGES = 20;
+
+    private final DataManager dataManager;
+    private final String[] columns;
+    private final Function<AttemptRow, Object[]> rowMapper;
+    private final Consumer<Throwable> onError;
+    private AttemptFilter filter = AttemptFilter.all();
+    private int rowCount;
+
+    // Loaded pages in access order; the least recently used one is dropped past the limit
+    private final Map<Integer, Page> pages = new LinkedHashMap<Integer, Page>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Page> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    // Page index -> rowid the page starts after; page 0 starts at the beginning
+    private final TreeMap<Integer, Long> pageStarts = new TreeMap<>(Map.of(0, Long.MIN_VALUE));
+    // Page index -> token of its in-flight request; a page whose token was dropped
+    // (by a reload or a row removal) is discarded when it arrives
+    private final Map<Integer, Object> loadingPages = new HashMap<>();
+    // Bumped on every reload so an older count is discarded
+    private int generation;
+
+    private static class Page {
+        private final List<AttemptRow> rows;
+        private final Object[][] cells;
+
+        Page(List<AttemptRow> rows, Function<AttemptRow, Object[]> rowMapper) {
+            this.rows = rows;
+            this.cells = new Object[rows.size()][];
+            for (int i = 0; i < cells.length; i++) {
+                cells[i] = rowMapper.apply(rows.get(i));
+            }
+        }
+    }
+
+    /**
+     * @param onError called on the EDT with the cause of a failed count or page load
+     */
+    public PagedAttemptTableModel(DataManager dataManager, String[] columns, Function<AttemptRow, Object[]> rowMapper,
+                                  Consumer<Throwable> onError) {
+        this.dataManager = dataManager;
+        this.columns = columns;
+        this.rowMapper = rowMapper;
+        this.onError = onError;
+    }
+
+    /**
+     * Switches to a new filter and reloads.
+     */
+    public void setFilter(AttemptFilter filter) {
+        this.filter = filter;
+        reload();
+    }
+
+    /**
+     * Drops every cached page and re-counts the matching attempts in the background;
+     * the visible rows are fetched again once the new count is in.
+     */
+    public void reload() {
+        int requestGeneration = ++generation;
+        AttemptFilter requestFilter = filter;
+        pages.clear();
+        pageStarts.clear();
+        pageStarts.put(0, Long.MIN_VALUE);
+        loadingPages.clear();
+        new SwingWorker<Long, Void>() {
+            @Override
+            protected Long doInBackground() {
+                return dataManager.countAttempts(requestFilter);
+            }
+
+            @Override
+            protected void done() {
+                if (requestGeneration != generation) return;
+                try {
+                    rowCount = (int) Math.min(Integer.MAX_VALUE, get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rowCount = 0;
+                } catch (ExecutionException e) {
+                    rowCount = 0;
+                    onError.accept(e.getCause());
+                }
+                fireTableDataChanged();
+            }
+        }.execute();
+    }
+
+    /**
+     * Adds the row of an attempt just inserted into the database. Rows are in rowid (that
+     * is, attempt id) order, and a new id is not always the highest: one made on another
+     * node, or under a clock that was set back, sorts among the existing rows. So the row
+     * only goes at the end, refetching just the last page, if that page is loaded and
+     * ends before it; otherwise the model reloads. The caller must know the attempt
+     * matches this model's filter.
+     */
+    public void attemptInserted(long attemptId) {
+        Page last = rowCount == 0 ? null : pages.get((rowCount - 1) / PAGE_SIZE);
+        boolean atEnd = rowCount == 0
+                || (last != null && !last.rows.isEmpty() && last.rows.get(last.rows.size() - 1).getRowId() < attemptId);
+        if (!atEnd) {
+            reload();
+            return;
+        }
+        int row = rowCount++;
+        int pageIndex = row / PAGE_SIZE;
+        pages.remove(pageIndex);
+        loadingPages.remove(pageIndex);
+        fireTableRowsInserted(row, row);
+    }
+
+    /**
+     * Removes the row of an attempt just deleted from the database. Only the loaded pages
+     * are searched; if the attempt is not among them the model reloads instead.
+     */
+    public void attemptDeleted(long attemptId) {
+        for (Map.Entry<Integer, Page> entry : pages.entrySet()) {
+            List<AttemptRow> rows = entry.getValue().rows;
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getAttempt().getId() == attemptId) {
+                    removeRow(entry.getKey(), entry.getKey() * PAGE_SIZE + i);
+                    return;
+                }
+            }
+        }
+        reload();
+    }
+
+    private void removeRow(int pageIndex, int row) {
+        // Every row after this one moves up, so this page and the ones after it no
+        // longer line up with their indexes; pages before it are untouched
+        pages.keySet().removeIf(index -> index >= pageIndex);
+        pageStarts.tailMap(pageIndex, false).clear();
+        loadingPages.keySet().removeIf(index -> index >= pageIndex);
+        rowCount--;
+        fireTableRowsDeleted(row, row);
+    }
+
+    /**
+     * @return the attempt shown at the given model row, or null if its page is not loaded
+     */
+    public AttemptRow getRowAt(int row) {
+        Page page = pages.get(row / PAGE_SIZE);
+        int index = row % PAGE_SIZE;
+        return page != null && index < page.rows.size() ? page.rows.get(index) : null;
+    }
+
+    @Override public int getRowCount() { return rowCount; }
+    @Override public int getColumnCount() { return columns.length; }
+    @Override public String getColumnName(int column) { return columns[column]; }
+    @Override public boolean isCellEditable(int row, int column) { return false; }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int pageIndex = row / PAGE_SIZE;
+        Page page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+            return null;
+        }
+        int index = row % PAGE_SIZE;
+        return index < page.cells.length ? page.cells[index][column] : null;
+    }
+
+    private void requestPage(int pageIndex) {
+        if (loadingPages.containsKey(pageIndex)) return;
+        Object token = new Object();
+        loadingPages.put(pageIndex, token);
+
+        // Seek from the closest page start we know, skipping whole pages only if we must
+        Map.Entry<Integer, Long> start = pageStarts.floorEntry(pageIndex);
+        long afterRowId = start.getValue();
+        int offset = (pageIndex - start.getKey()) * PAGE_SIZE;
+        AttemptFilter requestFilter = filter;
+
+        new SwingWorker<List<AttemptRow>, Void>() {
+            @Override
+            protected List<AttemptRow> doInBackground() {
+                return dataManager.queryAttemptsPage(requestFilter, afterRowId, offset, PAGE_SIZE);
+            }
+
+            @Override
+            protected void done() {
+                if (!loadingPages.remove(pageIndex, token)) return;
+                List<AttemptRow> rows;
+                try {
+                    rows = get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    rows = new ArrayList<>();
+                } catch (ExecutionException e) {
+                    rows = new ArrayList<>();
+                    onError.accept(e.getCause());
+                }
+                pages.put(pageIndex, new Page(rows, rowMapper));
+                if (rows.size() == PAGE_SIZE) {
+                    pageStarts.put(pageIndex + 1, rows.get(rows.size() - 1).getRowId());
+                }
+                int first = pageIndex * PAGE_SIZE;
+                int last = Math.min(rowCount, first + PAGE_SIZE) - 1;
+                if (first <= last) {
+                    fireTableRowsUpdated(first, last);
+                }
+            }
+        }.execute();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Writes a report to stdout or a file without starting the UI, for scheduled jobs on
+ * machines with no display. Only DataManager and ReportEngine are loaded; nothing
+ * touches Swing or AWT.
+ *
+ * Usage: java -cp .;sqlite-jdbc-3.51.0.0.jar ReportCli report [options]
+ *   report: overview | batches | semesters | months | sessions | attempts
+ *   --format csv|json   (default csv)
+ *   --out FILE          (default stdout)
+ *   --db JDBC_URL       (default the app's database)
+ *   --semester S --batch B --status S --search TEXT   (attempts, months and sessions)
+ *   --from YYYY-MM-DD --to YYYY-MM-DD                  (exam dates, both inclusive; likewise)
+ */
+public class ReportCli {
+
+    private static final String USAGE = "Usage: ReportCli overview|batches|semesters|months|sessions|attempts"
+            + " [--format csv|json] [--out FILE] [--db JDBC_URL]"
+            + " [--semester S] [--batch B] [--status S] [--search TEXT]"
+            + " [--from YYYY-MM-DD] [--to YYYY-MM-DD]";
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * @return the process exit code: 0 on success, 1 for bad arguments, 2 if the database
+     * could not be opened or writing failed
+     */
+    static int run(String[] args) {
+        if (args.length == 0) {
+            System.err.println(USAGE);
+            return 1;
+        }
+        String report = args[0];
+        String format = "csv", outFile = null, dbUrl = null;
+        String semester = null, batch = null, status = null, search = null;
+        LocalDate from = null, to = null;
+        for (int i = 1; i < args.length; i++) {
+            if (i + 1 == args.length) {
+                System.err.println("Missing value for " + args[i] + "\n" + USAGE);
+                return 1;
+            }
+            String value = args[++i];
+            switch (args[i - 1]) {
+                case "--format": format = value; break;
+                case "--out": outFile = value; break;
+                case "--db": dbUrl = value; break;
+                case "--semester": semester = value; break;
+                case "--batch": batch = value; break;
+                case "--status": status = value; break;
+                case "--search": search = value; break;
+                case "--from":
+                    from = parseDate(value);
+                    if (from == null) return 1;
+                    break;
+                case "--to":
+                    to = parseDate(value);
+                    if (to == null) return 1;
+                    break;
+                default:
+                    System.err.println("Unknown option " + args[i - 1] + "\n" + USAGE);
+                    return 1;
+            }
+        }
+        if (!List.of("overview", "batches", "semesters", "months", "sessions", "attempts").contains(report)) {
+            System.err.println("Unknown report " + report + "\n" + USAGE);
+            return 1;
+        }
+        if (!format.equals("csv") && !format.equals("json")) {
+            System.err.println("Unknown format " + format + "\n" + USAGE);
+            return 1;
+        }
+
+        AttemptFilter filter;
+        try {
+            filter = new AttemptFilter(semester, batch, status, search, from, to);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage() + "\n" + USAGE);
+            return 1;
+        }
+
+        DataManager dataManager;
+        try {
+            dataManager = dbUrl == null ? new DataManager() : new DataManager(dbUrl);
+        } catch (IllegalStateException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        }
+        try (Writer writer = outFile == null
+                ? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : Files.newBufferedWriter(Paths.get(outFile), StandardCharsets.UTF_8)) {
+            ReportEngine engine = new ReportEngine(dataManager);
+            ReportWriter out = ReportWriter.forFormat(format, writer);
+            switch (report) {
+                case "overview": engine.writeOverview(out); break;
+                case "batches": engine.writeBatchSummary(out); break;
+                case "semesters": engine.writeSemesterSummary(out); break;
+                case "months": engine.writeExamMonthSummary(filter, out); break;
+                case "sessions": engine.writeExamSessionSummary(filter, out); break;
+                default:
+                    engine.writeFiltered(filter, out, () -> false);
+                    break;
+            }
+            return 0;
+        } catch (IOException e) {
+            System.err.println("Could not write the report: " + e.getMessage());
+            return 2;
+        } finally {
+            dataManager.close();
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid date " + value + ", expected YYYY-MM-DD\n" + USAGE);
+            return null;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the app's reports (the overall figures, the batch and semester summaries, the
+ * exam month and session summaries and the filtered attempt list) from DataManager,
+ * with no UI involved. The Reports tab shows these rows, and ReportCli writes them as
+ * CSV or JSON.
+ *
+ * Cells hold raw values: counts as longs, the pass rate as a percentage and the
+ * average score as doubles rounded to one decimal. Formatting is left to whoever
+ * shows them.
+ */
+public class ReportEngine {
+
+    public static final String[] OVERVIEW_COLUMNS = {"Students", "Attempts", "Passed", "Elite", "Pass Rate", "Avg Score"};
+    public static final String[] BATCH_COLUMNS = {"Batch", "Students", "Attempts", "Passed", "Elite", "Pass Rate"};
+    public static final String[] SEMESTER_COLUMNS = {"Semester", "Attempts", "Passed", "Elite", "Pass Rate", "Avg Score"};
+    public static final String[] EXAM_MONTH_COLUMNS = {"Month", "Students", "Attempts", "Passed", "Elite", "Pass Rate", "Avg Score"};
+    public static final String[] EXAM_SESSION_COLUMNS = {"Session", "Students", "Attempts", "Passed", "Elite", "Pass Rate", "Avg Score"};
+    public static final String[] FILTERED_COLUMNS = {"Student ID", "Student Name", "NPTEL ID", "Course", "Date", "Score", "Semester", "Status", "Batch"};
+
+    private final DataManager dataManager;
+
+    public ReportEngine(DataManager dataManager) {
+        this.dataManager = dataManager;
+    }
+
+    // --- Reports ---
+
+    public Object[] overview() {
+        SummaryRow overall = dataManager.overallStats();
+        AttemptStats stats = overall.getStats();
+        return new Object[]{overall.getStudents(), stats.getAttempts(), stats.getPassed(), stats.getElite(),
+                round(stats.getPassRate()), round(stats.getAverageScore())};
+    }
+
+    /**
+     * @return one row per batch, sorted by batch
+     */
+    public List<Object[]> batchSummary() {
+        List<Object[]> rows = new ArrayList<>();
+        for (SummaryRow row : dataManager.batchSummary()) {
+            AttemptStats stats = row.getStats();
+            rows.add(new Object[]{row.getKey(), row.getStudents(), stats.getAttempts(), stats.getPassed(),
+                    stats.getElite(), round(stats.getPassRate())});
+        }
+        return rows;
+    }
+
+    /**
+     * @return one row per semester from 1 to 8, in order, empty ones included
+     */
+    public List<Object[]> semesterSummary() {
+        Map<String, AttemptStats> statsBySemester = dataManager.semesterSummary().stream()
+                .collect(Collectors.toMap(SummaryRow::getKey, SummaryRow::getStats));
+
+        List<Object[]> rows = new ArrayList<>();
+        for (Semester value : Semester.values()) {
+            String semester = value.toString();
+            AttemptStats stats = statsBySemester.getOrDefault(semester, new AttemptStats());
+            rows.add(new Object[]{semester, stats.getAttempts(), stats.getPassed(), stats.getElite(),
+                    round(stats.getPassRate()), round(stats.getAverageScore())});
+        }
+        return rows;
+    }
+
+    /**
+     * @return one row per month with exams among the filter's attempts, in order
+     */
+    public List<Object[]> examMonthSummary(AttemptFilter filter) {
+        return examDateRows(dataManager.examMonthSummary(filter));
+    }
+
+    /**
+     * @return one row per exam session with exams among the filter's attempts, in order
+     */
+    public List<Object[]> examSessionSummary(AttemptFilter filter) {
+        return examDateRows(dataManager.examSessionSummary(filter));
+    }
+
+    private static List<Object[]> examDateRows(List<SummaryRow> summary) {
+        List<Object[]> rows = new ArrayList<>();
+        for (SummaryRow row : summary) {
+            AttemptStats stats = row.getStats();
+            rows.add(new Object[]{row.getKey(), row.getStudents(), stats.getAttempts(), stats.getPassed(),
+                    stats.getElite(), round(stats.getPassRate()), round(stats.getAverageScore())});
+        }
+        return rows;
+    }
+
+    public static Object[] filteredRow(AttemptRow row) {
+        Attempt a = row.getAttempt();
+        return new Object[]{
+                a.getStudentId(),
+                row.getStudentName() != null ? row.getStudentName() : "Unknown",
+                a.getNptelId(),
+                a.getCourseName(),
+                a.getExamDate(),
+                a.getScore(),
+                a.getSemester(),
+                a.getStatus(),
+                row.getBatch() != null ? row.getBatch() : "Unknown"
+        };
+    }
+
+    // --- Writing ---
+
+    public void writeOverview(ReportWriter out) throws IOException {
+        out.begin(OVERVIEW_COLUMNS);
+        out.row(overview());
+        out.end();
+    }
+
+    public void writeBatchSummary(ReportWriter out) throws IOException {
+        write(out, BATCH_COLUMNS, batchSummary());
+    }
+
+    public void writeSemesterSummary(ReportWriter out) throws IOException {
+        write(out, SEMESTER_COLUMNS, semesterSummary());
+    }
+
+    public void writeExamMonthSummary(AttemptFilter filter, ReportWriter out) throws IOException {
+        write(out, EXAM_MONTH_COLUMNS, examMonthSummary(filter));
+    }
+
+    public void writeExamSessionSummary(AttemptFilter filter, ReportWriter out) throws IOException {
+        write(out, EXAM_SESSION_COLUMNS, examSessionSummary(filter));
+    }
+
+    /**
+     * Streams every attempt matching the filter, in the order they were added, without
+     * holding them all in memory.
+     * @return the number of attempts written, or -1 if cancelled
+     */
+    public long writeFiltered(AttemptFilter filter, ReportWriter out, BooleanSupplier cancelled) throws IOException {
+        return writeFiltered(filter, out, FILTERED_COLUMNS, ReportEngine::filteredRow, cancelled);
+    }
+
+    /**
+     * As above, with the columns and the cells of each row given by the caller.
+     */
+    public long writeFiltered(AttemptFilter filter, ReportWriter out, String[] columns,
+                              Function<AttemptRow, Object[]> toRow, BooleanSupplier cancelled) throws IOException {
+        long[] written = {0};
+        IOException[] failure = {null};
+
+        out.begin(columns);
+        dataManager.forEachAttempt(filter, row -> {
+            if (cancelled.getAsBoolean()) return false;
+            try {
+                out.row(toRow.apply(row));
+            } catch (IOException e) {
+                failure[0] = e;
+                return false;
+            }
+            written[0]++;
+            return true;
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        out.end();
+        return cancelled.getAsBoolean() ? -1 : written[0];
+    }
+
+    private static void write(ReportWriter out, String[] columns, List<Object[]> rows) throws IOException {
+        out.begin(columns);
+        for (Object[] row : rows) {
+            out.row(row);
+        }
+        out.end();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
\ No newline at end of file
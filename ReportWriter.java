@@ -0,0 +1,122 @@
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Writes report rows in a file format as they come: the columns once, then each row.
+ * Nothing is buffered beyond the underlying writer, so a report of any size streams.
+ */
+public abstract class ReportWriter {
+
+    protected final Writer out;
+    protected String[] columns;
+
+    protected ReportWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * @param format "csv" or "json"
+     */
+    public static ReportWriter forFormat(String format, Writer out) {
+        switch (format.toLowerCase(Locale.ROOT)) {
+            case "csv": return new Csv(out);
+            case "json": return new Json(out);
+            default: throw new IllegalArgumentException("Unknown report format: " + format);
+        }
+    }
+
+    public void begin(String[] columns) throws IOException {
+        this.columns = columns;
+    }
+
+    public abstract void row(Object... values) throws IOException;
+
+    public void end() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * A header line, then one line per row, quoted the same way as CsvExporter's files.
+     */
+    private static class Csv extends ReportWriter {
+        Csv(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void begin(String[] columns) throws IOException {
+            super.begin(columns);
+            CsvExporter.writeRow(out, (Object[]) columns);
+        }
+
+        @Override
+        public void row(Object... values) throws IOException {
+            CsvExporter.writeRow(out, values);
+        }
+    }
+
+    /**
+     * An array with one object per row, keyed by column name and one row per line.
+     * Numbers stay numbers; everything else becomes a string.
+     */
+    private static class Json extends ReportWriter {
+        private boolean first;
+
+        Json(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void begin(String[] columns) throws IOException {
+            super.begin(columns);
+            first = true;
+            out.write('[');
+        }
+
+        @Override
+        public void row(Object... values) throws IOException {
+            out.write(first ? "\n{" : ",\n{");
+            first = false;
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                writeString(columns[i]);
+                out.write(':');
+                writeValue(values[i]);
+            }
+            out.write('}');
+        }
+
+        @Override
+        public void end() throws IOException {
+            out.write(first ? "]\n" : "\n]\n");
+            super.end();
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.write("null");
+            } else if (value instanceof Number) {
+                out.write(value.toString());
+            } else {
+                writeString(value.toString());
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    out.write('\\');
+                    out.write(c);
+                } else if (c < 0x20) {
+                    out.write(String.format("\\u%04x", (int) c));
+                } else {
+                    out.write(c);
+                }
+            }
+            out.write('"');
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,184 @@
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * Checks that a database written by the first version of the app, before SCHEMA_VERSION
+ * existed and while SQLite's foreign keys were still off, upgrades to the current
+ * schema. Such a database can hold attempts whose student was deleted; it is built here
+ * with one, next to an attempt keyed by a timestamp and one keyed by other text, the
+ * two id forms that version wrote. Afterwards it checks that:
+ *   - every migration was applied
+ *   - all three attempts survived, with their dates, semesters and statuses converted
+ *   - the summary tables agree with a rebuild from the rows
+ *   - the overall totals count every attempt, the one without a student too
+ *   - foreign keys are enforced again once the upgrade is done
+ *   - two copies of the app opening such a database at the same moment both succeed
+ *
+ * Usage: java -cp .;sqlite-jdbc-3.51.0.0.jar SchemaMigrationTest
+ * (exits with 1 if a check fails)
+ */
+public class SchemaMigrationTest {
+
+    private static final String TIMESTAMP_ID = "1717171717171";
+    // Fresh databases the two racing copies upgrade, one after another
+    private static final int RACES = 5;
+
+    public static void main(String[] args) throws Exception {
+        Path dir = Files.createTempDirectory("nptel-migration");
+        String dbUrl = "jdbc:sqlite:" + dir.resolve("baseline.db");
+        List<String> problems = new ArrayList<>();
+        try {
+            writeBaseline(dbUrl);
+            check(dbUrl, problems);
+            for (int i = 0; i < RACES; i++) {
+                String raceUrl = "jdbc:sqlite:" + dir.resolve("race" + i + ".db");
+                writeBaseline(raceUrl);
+                race(raceUrl, problems);
+            }
+        } finally {
+            try (Stream<Path> paths = Files.list(dir)) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    Files.deleteIfExists(path);
+                }
+            }
+            Files.deleteIfExists(dir);
+        }
+
+        System.out.println(problems.isEmpty() ? "OK" : "FAILED");
+        for (String problem : problems) {
+            System.out.println("    " + problem);
+        }
+        System.exit(problems.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * The tables as the first version created them, with its rows: text ids, ISO dates,
+     * semesters and statuses as the combo boxes showed them, and no foreign key checks.
+     */
+    private static void writeBaseline(String dbUrl) throws SQLException {
+        try (Connection conn = DriverManager.getConnection(dbUrl);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE STUDENTS (id TEXT PRIMARY KEY NOT NULL, name TEXT NOT NULL, email TEXT,"
+                    + " batch TEXT, department TEXT, currentSemester TEXT)");
+            stmt.execute("CREATE TABLE ATTEMPTS (id TEXT PRIMARY KEY NOT NULL, studentId TEXT NOT NULL, nptelId TEXT,"
+                    + " courseName TEXT, examDate TEXT, score INTEGER, semester TEXT, status TEXT,"
+                    + " FOREIGN KEY (studentId) REFERENCES STUDENTS (id) ON DELETE CASCADE)");
+            stmt.execute("INSERT INTO STUDENTS VALUES ('21CSE001', 'Priya Raman', 'priya@college.edu', '2021', 'CSE', '7')");
+            stmt.execute("INSERT INTO STUDENTS VALUES ('22IT002', 'Arjun Das', 'arjun@college.edu', '2022', 'IT', '5')");
+            stmt.execute("INSERT INTO ATTEMPTS VALUES ('" + TIMESTAMP_ID + "', '21CSE001', 'noc24-cs42',"
+                    + " 'Programming in Java', '2024-10-26', 72, '7', 'Elite')");
+            stmt.execute("INSERT INTO ATTEMPTS VALUES ('imported-1', '22IT002', 'noc24-cs23',"
+                    + " 'Data Structures and Algorithms', '2024-04-27', 55, '4', 'Pass')");
+            // Its student was deleted while nothing enforced the cascade
+            stmt.execute("INSERT INTO ATTEMPTS VALUES ('1717171717999', '20ECE099', 'noc23-ee14',"
+                    + " 'Digital Circuits', '2023-10-21', 35, '5', 'Fail')");
+        }
+    }
+
+    private static void check(String dbUrl, List<String> problems) throws SQLException {
+        DataManager dataManager;
+        try {
+            dataManager = new DataManager(dbUrl);
+        } catch (IllegalStateException e) {
+            problems.add("upgrade failed: " + e.getMessage());
+            return;
+        }
+
+        try (Connection conn = DriverManager.getConnection(dbUrl);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(version) FROM SCHEMA_VERSION")) {
+            int version = rs.next() ? rs.getInt(1) : 0;
+            if (version != SchemaMigrator.latestVersion()) {
+                problems.add("schema at version " + version + ", expected " + SchemaMigrator.latestVersion());
+            }
+        }
+
+        List<Attempt> attempts = dataManager.getAttempts();
+        if (attempts.size() != 3) problems.add(attempts.size() + " attempts after the upgrade, expected 3");
+        Attempt timestamped = find(attempts, "21CSE001");
+        if (timestamped == null || timestamped.getId() != Long.parseLong(TIMESTAMP_ID)) {
+            problems.add("timestamp id not kept: " + timestamped);
+        } else if (!LocalDate.of(2024, 10, 26).equals(timestamped.getExamDate())
+                || timestamped.getSemester() != Semester.of(7) || timestamped.getStatus() != Status.ELITE) {
+            problems.add("timestamped attempt not converted: " + timestamped);
+        }
+        if (find(attempts, "22IT002") == null) problems.add("attempt with a text id lost");
+        Attempt orphan = find(attempts, "20ECE099");
+        if (orphan == null) {
+            problems.add("attempt without a student lost");
+        } else if (orphan.getStatus() != Status.FAIL || orphan.getSemester() != Semester.of(5)) {
+            problems.add("attempt without a student not converted: " + orphan);
+        }
+
+        String kept = summaryText(dataManager);
+        dataManager.rebuildSummaries();
+        if (!kept.equals(summaryText(dataManager))) problems.add("summary tables differ from a rebuild");
+        SummaryRow overall = dataManager.overallStats();
+        if (overall.getStudents() != 2 || overall.getStats().getAttempts() != 3) {
+            problems.add("overall totals: " + overall.getStudents() + " students, "
+                    + overall.getStats().getAttempts() + " attempts, expected 2 and 3");
+        }
+
+        Attempt noStudent = new Attempt("NOBODY", "noc25-cs46", "Machine Learning", LocalDate.of(2025, 4, 26),
+                80, Semester.of(2), Status.ELITE);
+        if (dataManager.addAttempt(noStudent)) problems.add("foreign keys not enforced after the upgrade");
+        dataManager.close();
+    }
+
+    /**
+     * Opens the database from two threads at once, each with its own DataManager and so
+     * its own connection, as two copies of the app started together would.
+     */
+    private static void race(String dbUrl, List<String> problems) throws InterruptedException {
+        CountDownLatch go = new CountDownLatch(1);
+        List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    go.await();
+                    new DataManager(dbUrl).close();
+                } catch (IllegalStateException e) {
+                    failures.add(e.getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        go.countDown();
+        for (Thread thread : threads) thread.join();
+        for (String failure : failures) problems.add("upgrade racing another copy failed: " + failure);
+    }
+
+    private static Attempt find(List<Attempt> attempts, String studentId) {
+        for (Attempt attempt : attempts) {
+            if (attempt.getStudentId().equals(studentId)) return attempt;
+        }
+        return null;
+    }
+
+    private static String summaryText(DataManager dataManager) {
+        StringBuilder text = new StringBuilder();
+        List<SummaryRow> rows = new ArrayList<>(dataManager.batchSummary());
+        rows.addAll(dataManager.semesterSummary());
+        for (SummaryRow row : rows) {
+            AttemptStats stats = row.getStats();
+            text.append(row.getKey()).append(' ').append(row.getStudents()).append(' ').append(stats.getAttempts())
+                    .append(' ').append(stats.getPassed()).append(' ').append(stats.getElite()).append('\n');
+        }
+        return text.toString();
+    }
+}
\ No newline at end of file
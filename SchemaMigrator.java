@@ -0,0 +1,385 @@
+import java.sql.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Brings nptel_tracker.db up to the schema this version of the app expects.
+ * Applied versions are recorded in SCHEMA_VERSION; each pending migration runs
+ * in its own transaction, in order. Every statement is idempotent, so a database
+ * created before versioning existed can be upgraded in place.
+ */
+public class SchemaMigrator {
+
+    // A text id that converts to an integer and back unchanged: digits only, no leading
+    // zero, short enough not to overflow
+    private static final String CANONICAL_INTEGER_ID =
+            "id GLOB '[1-9]*' AND id NOT GLOB '*[^0-9]*' AND length(id) <= 18";
+
+    // Whether attempt row $ counts as passed / elite, as 0 or 1; same rules as AttemptStats.
+    // Status flags since version 6, when every summary is rebuilt.
+    private static final String PASSED = "COALESCE(($.status & " + Status.PASSED_FLAG + ") > 0, 0)";
+    private static final String ELITE = "COALESCE(($.status & " + Status.ELITE_FLAG + ") > 0, 0)";
+
+    /**
+     * Recomputes the summary tables from STUDENTS and ATTEMPTS. Run in one transaction.
+     */
+    static final String[] REBUILD_SUMMARIES = {
+            "DELETE FROM BATCH_SUMMARY",
+            "DELETE FROM SEMESTER_SUMMARY",
+            "DELETE FROM SEMESTER_STUDENTS",
+            "INSERT INTO BATCH_SUMMARY (batch, students, attempts, passed, elite, scoreSum)"
+                    + " SELECT s.batch, COUNT(DISTINCT s.id), COUNT(a.id),"
+                    + " COALESCE(SUM(" + PASSED.replace("$", "a") + "), 0),"
+                    + " COALESCE(SUM(" + ELITE.replace("$", "a") + "), 0),"
+                    + " COALESCE(SUM(a.score), 0)"
+                    + " FROM STUDENTS s LEFT JOIN ATTEMPTS a ON a.studentId = s.id GROUP BY s.batch",
+            "INSERT INTO SEMESTER_STUDENTS (studentId, semester, attempts)"
+                    + " SELECT studentId, semester, COUNT(*) FROM ATTEMPTS GROUP BY studentId, semester",
+            "INSERT INTO SEMESTER_SUMMARY (semester, students, attempts, passed, elite, scoreSum)"
+                    + " SELECT a.semester, COUNT(DISTINCT a.studentId), COUNT(*),"
+                    + " SUM(" + PASSED.replace("$", "a") + "),"
+                    + " SUM(" + ELITE.replace("$", "a") + "),"
+                    + " COALESCE(SUM(a.score), 0)"
+                    + " FROM ATTEMPTS a GROUP BY a.semester"
+    };
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Create STUDENTS and ATTEMPTS tables",
+                    "CREATE TABLE IF NOT EXISTS STUDENTS ("
+                            + " id TEXT PRIMARY KEY NOT NULL,"
+                            + " name TEXT NOT NULL,"
+                            + " email TEXT,"
+                            + " batch TEXT,"
+                            + " department TEXT,"
+                            + " currentSemester TEXT"
+                            + ")",
+                    "CREATE TABLE IF NOT EXISTS ATTEMPTS ("
+                            + " id TEXT PRIMARY KEY NOT NULL,"
+                            + " studentId TEXT NOT NULL,"
+                            + " nptelId TEXT,"
+                            + " courseName TEXT,"
+                            + " examDate TEXT," // Store as TEXT in YYYY-MM-DD format
+                            + " score INTEGER,"
+                            + " semester TEXT,"
+                            + " status TEXT,"
+                            + " FOREIGN KEY (studentId) REFERENCES STUDENTS (id) ON DELETE CASCADE"
+                            + ")"),
+            new Migration(2, "Index attempt lookups and student batches",
+                    // Serves per-student lookups and the ON DELETE CASCADE from STUDENTS
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_STUDENT ON ATTEMPTS (studentId, semester)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_SEMESTER_STATUS ON ATTEMPTS (semester, status)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_STATUS ON ATTEMPTS (status)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_NPTEL ON ATTEMPTS (nptelId)",
+                    "CREATE INDEX IF NOT EXISTS IDX_STUDENTS_BATCH ON STUDENTS (batch)"),
+            new Migration(3, "Key ATTEMPTS by INTEGER id", true,
+                    // SQLite cannot change a column's type in place, so the table is rebuilt.
+                    // An INTEGER PRIMARY KEY is the rowid itself: lookups by id walk the table's
+                    // own B-tree instead of a separate text index.
+                    "DROP TABLE IF EXISTS ATTEMPTS_NEW",
+                    "CREATE TABLE ATTEMPTS_NEW ("
+                            + " id INTEGER PRIMARY KEY NOT NULL,"
+                            + " studentId TEXT NOT NULL,"
+                            + " nptelId TEXT,"
+                            + " courseName TEXT,"
+                            + " examDate TEXT,"
+                            + " score INTEGER,"
+                            + " semester TEXT,"
+                            + " status TEXT,"
+                            + " FOREIGN KEY (studentId) REFERENCES STUDENTS (id) ON DELETE CASCADE"
+                            + ")",
+                    // Old ids were millisecond timestamps stored as text and keep their value.
+                    // Anything else is copied afterwards with a fresh rowid, so the new keys
+                    // cannot land on an id still waiting to be copied.
+                    "INSERT INTO ATTEMPTS_NEW (id, studentId, nptelId, courseName, examDate, score, semester, status)"
+                            + " SELECT CAST(id AS INTEGER), studentId, nptelId, courseName, examDate, score, semester, status"
+                            + " FROM ATTEMPTS WHERE " + CANONICAL_INTEGER_ID + " ORDER BY rowid",
+                    "INSERT INTO ATTEMPTS_NEW (studentId, nptelId, courseName, examDate, score, semester, status)"
+                            + " SELECT studentId, nptelId, courseName, examDate, score, semester, status"
+                            + " FROM ATTEMPTS WHERE NOT (" + CANONICAL_INTEGER_ID + ") ORDER BY rowid",
+                    "DROP TABLE ATTEMPTS",
+                    "ALTER TABLE ATTEMPTS_NEW RENAME TO ATTEMPTS",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_STUDENT ON ATTEMPTS (studentId, semester)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_SEMESTER_STATUS ON ATTEMPTS (semester, status)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_STATUS ON ATTEMPTS (status)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_NPTEL ON ATTEMPTS (nptelId)"),
+            new Migration(4, "Add report summary tables", concat(new String[]{
+                    // Report totals per batch and per semester, so dashboards read a handful of
+                    // rows instead of scanning ATTEMPTS. DataManager updates them in the same
+                    // transaction as each write (see SummaryDelta).
+                    "CREATE TABLE IF NOT EXISTS BATCH_SUMMARY ("
+                            + " batch TEXT,"
+                            + " students INTEGER NOT NULL DEFAULT 0,"
+                            + " attempts INTEGER NOT NULL DEFAULT 0,"
+                            + " passed INTEGER NOT NULL DEFAULT 0,"
+                            + " elite INTEGER NOT NULL DEFAULT 0,"
+                            + " scoreSum INTEGER NOT NULL DEFAULT 0"
+                            + ")",
+                    "CREATE TABLE IF NOT EXISTS SEMESTER_SUMMARY ("
+                            + " semester TEXT,"
+                            + " students INTEGER NOT NULL DEFAULT 0,"
+                            + " attempts INTEGER NOT NULL DEFAULT 0,"
+                            + " passed INTEGER NOT NULL DEFAULT 0,"
+                            + " elite INTEGER NOT NULL DEFAULT 0,"
+                            + " scoreSum INTEGER NOT NULL DEFAULT 0"
+                            + ")",
+                    // Attempts per student per semester, to know when a semester gains or loses a student
+                    "CREATE TABLE IF NOT EXISTS SEMESTER_STUDENTS ("
+                            + " studentId TEXT NOT NULL,"
+                            + " semester TEXT,"
+                            + " attempts INTEGER NOT NULL DEFAULT 0"
+                            + ")",
+                    "CREATE INDEX IF NOT EXISTS IDX_BATCH_SUMMARY ON BATCH_SUMMARY (batch)",
+                    "CREATE INDEX IF NOT EXISTS IDX_SEMESTER_SUMMARY ON SEMESTER_SUMMARY (semester)",
+                    "CREATE INDEX IF NOT EXISTS IDX_SEMESTER_STUDENTS ON SEMESTER_STUDENTS (studentId, semester)"
+            }, REBUILD_SUMMARIES)),
+            new Migration(5, "Store exam dates as epoch days", true,
+                    // Days since 1970-01-01 (LocalDate.toEpochDay) as an INTEGER: reading one back
+                    // needs no parsing, and a date range is an index range scan. The column's type
+                    // decides how SQLite stores values, so the table is rebuilt again.
+                    "DROP TABLE IF EXISTS ATTEMPTS_NEW",
+                    "CREATE TABLE ATTEMPTS_NEW ("
+                            + " id INTEGER PRIMARY KEY NOT NULL,"
+                            + " studentId TEXT NOT NULL,"
+                            + " nptelId TEXT,"
+                            + " courseName TEXT,"
+                            + " examDate INTEGER,"
+                            + " score INTEGER,"
+                            + " semester TEXT,"
+                            + " status TEXT,"
+                            + " FOREIGN KEY (studentId) REFERENCES STUDENTS (id) ON DELETE CASCADE"
+                            + ")",
+                    // julianday() is 2440587.5 at 1970-01-01 00:00; text that is not a date becomes NULL
+                    "INSERT INTO ATTEMPTS_NEW (id, studentId, nptelId, courseName, examDate, score, semester, status)"
+                            + " SELECT id, studentId, nptelId, courseName, CAST(julianday(examDate) - 2440587.5 AS INTEGER),"
+                            + " score, semester, status FROM ATTEMPTS ORDER BY id",
+                    "DROP TABLE ATTEMPTS",
+                    "ALTER TABLE ATTEMPTS_NEW RENAME TO ATTEMPTS",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_STUDENT ON ATTEMPTS (studentId, semester)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_SEMESTER_STATUS ON ATTEMPTS (semester, status)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_STATUS ON ATTEMPTS (status)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_NPTEL ON ATTEMPTS (nptelId)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_EXAM_DATE ON ATTEMPTS (examDate)"),
+            new Migration(6, "Store semesters and statuses as integers", true, concat(new String[]{
+                    // Semesters as their number and statuses as their Status flags, so report
+                    // checks are bit tests and rows are smaller.
+                    "DROP TABLE IF EXISTS ATTEMPTS_NEW",
+                    "CREATE TABLE ATTEMPTS_NEW ("
+                            + " id INTEGER PRIMARY KEY NOT NULL,"
+                            + " studentId TEXT NOT NULL,"
+                            + " nptelId TEXT,"
+                            + " courseName TEXT,"
+                            + " examDate INTEGER,"
+                            + " score INTEGER,"
+                            + " semester INTEGER,"
+                            + " status INTEGER,"
+                            + " FOREIGN KEY (studentId) REFERENCES STUDENTS (id) ON DELETE CASCADE"
+                            + ")",
+                    // Semesters outside 1-8 become NULL. Unknown statuses keep counting as they
+                    // did: passed unless "Fail", elite if they mention "Elite".
+                    "INSERT INTO ATTEMPTS_NEW (id, studentId, nptelId, courseName, examDate, score, semester, status)"
+                            + " SELECT id, studentId, nptelId, courseName, examDate, score,"
+                            + " CASE WHEN CAST(semester AS INTEGER) BETWEEN 1 AND 8 THEN CAST(semester AS INTEGER) END,"
+                            + " CASE WHEN status IS NULL THEN NULL"
+                            + " WHEN status = 'Fail' THEN " + Status.FAIL.getFlags()
+                            + " WHEN status = 'Elite + Gold' THEN " + Status.ELITE_GOLD.getFlags()
+                            + " WHEN instr(status, 'Elite') > 0 THEN " + Status.ELITE.getFlags()
+                            + " ELSE " + Status.PASS.getFlags() + " END"
+                            + " FROM ATTEMPTS ORDER BY id",
+                    "DROP TABLE ATTEMPTS",
+                    "ALTER TABLE ATTEMPTS_NEW RENAME TO ATTEMPTS",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_STUDENT ON ATTEMPTS (studentId, semester)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_SEMESTER_STATUS ON ATTEMPTS (semester, status)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_STATUS ON ATTEMPTS (status)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_NPTEL ON ATTEMPTS (nptelId)",
+                    "CREATE INDEX IF NOT EXISTS IDX_ATTEMPTS_EXAM_DATE ON ATTEMPTS (examDate)",
+                    // The semester summaries are keyed the same way; they are rebuilt below
+                    "DROP TABLE IF EXISTS SEMESTER_SUMMARY",
+                    "DROP TABLE IF EXISTS SEMESTER_STUDENTS",
+                    "CREATE TABLE SEMESTER_SUMMARY ("
+                            + " semester INTEGER,"
+                            + " students INTEGER NOT NULL DEFAULT 0,"
+                            + " attempts INTEGER NOT NULL DEFAULT 0,"
+                            + " passed INTEGER NOT NULL DEFAULT 0,"
+                            + " elite INTEGER NOT NULL DEFAULT 0,"
+                            + " scoreSum INTEGER NOT NULL DEFAULT 0"
+                            + ")",
+                    "CREATE TABLE SEMESTER_STUDENTS ("
+                            + " studentId TEXT NOT NULL,"
+                            + " semester INTEGER,"
+                            + " attempts INTEGER NOT NULL DEFAULT 0"
+                            + ")",
+                    "CREATE INDEX IF NOT EXISTS IDX_SEMESTER_SUMMARY ON SEMESTER_SUMMARY (semester)",
+                    "CREATE INDEX IF NOT EXISTS IDX_SEMESTER_STUDENTS ON SEMESTER_STUDENTS (studentId, semester)"
+            }, REBUILD_SUMMARIES)),
+            new Migration(7, "Add a data version counter",
+                    // One row, bumped by every DataManager write transaction; tells a snapshot
+                    // of the data whether it is still current
+                    "CREATE TABLE IF NOT EXISTS DATA_VERSION (version INTEGER NOT NULL)",
+                    "INSERT INTO DATA_VERSION (version) SELECT 0 WHERE NOT EXISTS (SELECT 1 FROM DATA_VERSION)"),
+            new Migration(8, "Add the change journal",
+                    // AUTOINCREMENT so a sequence number is never handed out twice
+                    "CREATE TABLE IF NOT EXISTS CHANGE_JOURNAL ("
+                            + " seq INTEGER PRIMARY KEY AUTOINCREMENT,"
+                            + " type TEXT NOT NULL,"   // DataChangeEvent.Type
+                            + " entity TEXT NOT NULL," // DataChangeEvent.Entity
+                            + " studentId TEXT,"
+                            + " attemptId INTEGER"
+                            + ")"),
+            new Migration(9, "Hand out attempt id nodes",
+                    // The node the next process to open the database takes; see AttemptIdGenerator
+                    "CREATE TABLE IF NOT EXISTS ID_NODE (next INTEGER NOT NULL)",
+                    "INSERT INTO ID_NODE (next) SELECT 0 WHERE NOT EXISTS (SELECT 1 FROM ID_NODE)")
+    );
+
+    private static class Migration {
+        private final int version;
+        private final String description;
+        // Copies a table into a new one and drops the old, so runs with foreign keys off
+        private final boolean rebuildsTables;
+        private final String[] statements;
+
+        Migration(int version, String description, String... statements) {
+            this(version, description, false, statements);
+        }
+
+        Migration(int version, String description, boolean rebuildsTables, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.rebuildsTables = rebuildsTables;
+            this.statements = statements;
+        }
+    }
+
+    private static String[] concat(String[] first, String[] second) {
+        String[] all = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return all;
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    /**
+     * Applies every migration newer than the database's recorded version. Several copies
+     * of the app may start on the same old database at once; each migration is applied
+     * by whichever gets the write lock first and skipped by the others (see apply).
+     * @param conn an open connection in auto-commit mode
+     */
+    public void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS SCHEMA_VERSION ("
+                    + " version INTEGER PRIMARY KEY NOT NULL,"
+                    + " description TEXT,"
+                    + " appliedAt TEXT DEFAULT CURRENT_TIMESTAMP"
+                    + ")");
+        }
+
+        int current = currentVersion(conn);
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version > current) {
+                apply(conn, migration);
+            }
+        }
+    }
+
+    public int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM SCHEMA_VERSION")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Runs one migration in a transaction, unless another connection applied it since
+     * migrate() read the version. The transaction takes the write lock up front (BEGIN
+     * IMMEDIATE), waiting for it under the busy timeout, and checks again under it, so
+     * no two copies run the same migration. A table rebuild runs with foreign keys off,
+     * as SQLite's guide to altering tables has it: databases from before DataManager
+     * turned them on can hold attempts whose student was deleted, and copying those
+     * rows would fail their check. Such attempts are kept, as they always were; the
+     * rebuild only has to leave no more broken references than it found.
+     */
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        // The pragma is ignored inside a transaction, so it is switched around it
+        boolean foreignKeys = migration.rebuildsTables && foreignKeysEnabled(conn);
+        if (foreignKeys) setForeignKeys(conn, false);
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement(
+                     "INSERT INTO SCHEMA_VERSION(version, description) VALUES(?,?)")) {
+            stmt.execute("BEGIN IMMEDIATE");
+            try {
+                if (isApplied(conn, migration.version)) {
+                    stmt.execute("ROLLBACK");
+                    return;
+                }
+                run(conn, stmt, record, migration);
+                stmt.execute("COMMIT");
+            } catch (SQLException e) {
+                try {
+                    stmt.execute("ROLLBACK");
+                } catch (SQLException rollbackFailed) {
+                    // Some errors end the transaction themselves
+                    e.addSuppressed(rollbackFailed);
+                }
+                throw new SQLException("Schema migration " + migration.version + " failed: " + e.getMessage(), e);
+            }
+        } finally {
+            if (foreignKeys) setForeignKeys(conn, true);
+        }
+    }
+
+    /** The migration's statements and its SCHEMA_VERSION row, inside apply's transaction */
+    private static void run(Connection conn, Statement stmt, PreparedStatement record, Migration migration)
+            throws SQLException {
+        long brokenBefore = migration.rebuildsTables ? foreignKeyViolations(conn) : 0;
+        for (String sql : migration.statements) {
+            stmt.execute(sql);
+        }
+        if (migration.rebuildsTables) {
+            long brokenAfter = foreignKeyViolations(conn);
+            if (brokenAfter > brokenBefore) {
+                throw new SQLException("rebuild left " + (brokenAfter - brokenBefore) + " more rows with a missing parent");
+            }
+            if (brokenAfter > 0) {
+                System.err.println("Schema migration " + migration.version + ": kept " + brokenAfter
+                        + " rows whose parent row no longer exists");
+            }
+        }
+        record.setInt(1, migration.version);
+        record.setString(2, migration.description);
+        record.executeUpdate();
+    }
+
+    private static boolean isApplied(Connection conn, int version) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM SCHEMA_VERSION WHERE version = ?")) {
+            pstmt.setInt(1, version);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static boolean foreignKeysEnabled(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA foreign_keys")) {
+            return rs.next() && rs.getInt(1) == 1;
+        }
+    }
+
+    private static void setForeignKeys(Connection conn, boolean on) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = " + (on ? "ON" : "OFF"));
+        }
+    }
+
+    /** @return the rows whose foreign key points at a row that does not exist */
+    private static long foreignKeyViolations(Connection conn) throws SQLException {
+        long rows = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check")) {
+            while (rs.next()) rows++;
+        }
+        return rows;
+    }
+}
\ No newline at end of file
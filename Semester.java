@@ -0,0 +1,39 @@
+/**
+ * One of the eight semesters of a degree, stored in SQLite as its number.
+ */
+public enum Semester {
+    FIRST, SECOND, THIRD, FOURTH, FIFTH, SIXTH, SEVENTH, EIGHTH;
+
+    private static final Semester[] VALUES = values();
+
+    /**
+     * @throws IllegalArgumentException unless 1 <= number <= 8
+     */
+    public static Semester of(int number) {
+        if (number < 1 || number > VALUES.length) {
+            throw new IllegalArgumentException("No semester " + number);
+        }
+        return VALUES[number - 1];
+    }
+
+    /**
+     * @param text a semester number, as the combo boxes show it
+     * @throws IllegalArgumentException if it is not a number from 1 to 8
+     */
+    public static Semester parse(String text) {
+        try {
+            return of(Integer.parseInt(text.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown semester: " + text);
+        }
+    }
+
+    public int getNumber() {
+        return ordinal() + 1;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(getNumber()); // Used for display and in exported files
+    }
+}
\ No newline at end of file
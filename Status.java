@@ -0,0 +1,67 @@
+/**
+ * An attempt's certificate band. Each status is a set of flags (passed, elite,
+ * gold), so "does this count as passed / elite" is a single bit test rather than a
+ * string comparison. The flags are also what ATTEMPTS.status stores, and SQL tests
+ * them the same way, e.g. {@code status & 1}.
+ */
+public enum Status {
+    PASS("Pass", Status.PASSED_FLAG),
+    FAIL("Fail", 0),
+    ELITE("Elite", Status.PASSED_FLAG | Status.ELITE_FLAG),
+    ELITE_GOLD("Elite + Gold", Status.PASSED_FLAG | Status.ELITE_FLAG | Status.GOLD_FLAG);
+
+    public static final int PASSED_FLAG = 1;
+    public static final int ELITE_FLAG = 2;
+    public static final int GOLD_FLAG = 4;
+
+    // Indexed by flags; null where no status has that combination
+    private static final Status[] BY_FLAGS = new Status[8];
+
+    static {
+        for (Status status : values()) {
+            BY_FLAGS[status.flags] = status;
+        }
+    }
+
+    private final String label;
+    private final int flags;
+
+    Status(String label, int flags) {
+        this.label = label;
+        this.flags = flags;
+    }
+
+    /**
+     * @throws IllegalArgumentException if no status has exactly these flags
+     */
+    public static Status fromFlags(int flags) {
+        Status status = flags >= 0 && flags < BY_FLAGS.length ? BY_FLAGS[flags] : null;
+        if (status == null) {
+            throw new IllegalArgumentException("No status with flags " + flags);
+        }
+        return status;
+    }
+
+    /**
+     * @param label a label as shown in the UI ("Elite + Gold"), in any case
+     * @throws IllegalArgumentException if no status has that label
+     */
+    public static Status parse(String label) {
+        for (Status status : values()) {
+            if (status.label.equalsIgnoreCase(label.trim())) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown status: " + label);
+    }
+
+    public int getFlags() { return flags; }
+    public boolean isPassed() { return (flags & PASSED_FLAG) != 0; }
+    public boolean isElite() { return (flags & ELITE_FLAG) != 0; }
+    public boolean isGold() { return (flags & GOLD_FLAG) != 0; }
+
+    @Override
+    public String toString() {
+        return label; // Used for display and in exported files
+    }
+}
\ No newline at end of file
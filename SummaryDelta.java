@@ -0,0 +1,145 @@
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The net effect of one write on the report summary tables (BATCH_SUMMARY,
+ * SEMESTER_SUMMARY and SEMESTER_STUDENTS). DataManager records every student and
+ * attempt it adds or removes, then applies the delta inside the same transaction,
+ * so the tables change together with the rows they summarize. A bulk write is
+ * added up first and applied once per affected group rather than once per row.
+ */
+public class SummaryDelta {
+
+    /**
+     * Prepares (or reuses) a statement on the connection running the write.
+     */
+    public interface StatementSource {
+        PreparedStatement prepare(String sql) throws SQLException;
+    }
+
+    // Per group: students, attempts, passed, elite, score sum
+    private static final int STUDENTS = 0, ATTEMPTS = 1, PASSED = 2, ELITE = 3, SCORE_SUM = 4;
+
+    private final Map<String, long[]> batches = new HashMap<>();
+    // Keyed by semester number, as the tables store it; null for an attempt with no semester
+    private final Map<Integer, long[]> semesters = new HashMap<>();
+    // Student ID -> semester -> change in that student's attempts in that semester
+    private final Map<String, Map<Integer, Long>> studentSemesters = new HashMap<>();
+
+    /**
+     * Records a student added to (sign 1) or removed from (sign -1) a batch.
+     */
+    public void student(String batch, int sign) {
+        batches.computeIfAbsent(batch, k -> new long[5])[STUDENTS] += sign;
+    }
+
+    /**
+     * Records an attempt added (sign 1) or removed (sign -1); {@code batch} is its student's batch.
+     */
+    public void attempt(String batch, String studentId, Semester semester, Status status, int score, int sign) {
+        Integer semesterKey = semester == null ? null : semester.getNumber();
+        add(batches.computeIfAbsent(batch, k -> new long[5]), status, score, sign);
+        add(semesters.computeIfAbsent(semesterKey, k -> new long[5]), status, score, sign);
+        studentSemesters.computeIfAbsent(studentId, k -> new HashMap<>()).merge(semesterKey, (long) sign, Long::sum);
+    }
+
+    private static void add(long[] totals, Status status, int score, int sign) {
+        // Same rules as AttemptStats.add
+        totals[ATTEMPTS] += sign;
+        if (status != null && status.isPassed()) totals[PASSED] += sign;
+        if (status != null && status.isElite()) totals[ELITE] += sign;
+        totals[SCORE_SUM] += (long) sign * score;
+    }
+
+    /**
+     * Writes the recorded changes to the summary tables. Must run in the transaction
+     * that made the changes.
+     */
+    public void apply(StatementSource db) throws SQLException {
+        // First find which semesters gain or lose a student
+        for (Map.Entry<String, Map<Integer, Long>> student : studentSemesters.entrySet()) {
+            for (Map.Entry<Integer, Long> entry : student.getValue().entrySet()) {
+                long change = entry.getValue();
+                if (change == 0) continue;
+                long before = studentAttempts(db, student.getKey(), entry.getKey());
+                long after = before + change;
+                if (before == 0 && after > 0) {
+                    semesters.get(entry.getKey())[STUDENTS]++;
+                } else if (before > 0 && after <= 0) {
+                    semesters.get(entry.getKey())[STUDENTS]--;
+                }
+                setStudentAttempts(db, student.getKey(), entry.getKey(), before, after);
+            }
+        }
+
+        applyTotals(db, "BATCH_SUMMARY", "batch", batches, "students");
+        applyTotals(db, "SEMESTER_SUMMARY", "semester", semesters, "attempts");
+    }
+
+    private static long studentAttempts(StatementSource db, String studentId, Integer semester) throws SQLException {
+        PreparedStatement pstmt = db.prepare("SELECT attempts FROM SEMESTER_STUDENTS WHERE studentId = ? AND semester IS ?");
+        pstmt.setString(1, studentId);
+        pstmt.setObject(2, semester);
+        try (ResultSet rs = pstmt.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private static void setStudentAttempts(StatementSource db, String studentId, Integer semester, long before, long after)
+            throws SQLException {
+        PreparedStatement pstmt;
+        if (after <= 0) {
+            pstmt = db.prepare("DELETE FROM SEMESTER_STUDENTS WHERE studentId = ? AND semester IS ?");
+            pstmt.setString(1, studentId);
+            pstmt.setObject(2, semester);
+        } else if (before == 0) {
+            pstmt = db.prepare("INSERT INTO SEMESTER_STUDENTS (attempts, studentId, semester) VALUES (?,?,?)");
+            pstmt.setLong(1, after);
+            pstmt.setString(2, studentId);
+            pstmt.setObject(3, semester);
+        } else {
+            pstmt = db.prepare("UPDATE SEMESTER_STUDENTS SET attempts = ? WHERE studentId = ? AND semester IS ?");
+            pstmt.setLong(1, after);
+            pstmt.setString(2, studentId);
+            pstmt.setObject(3, semester);
+        }
+        pstmt.executeUpdate();
+    }
+
+    /**
+     * Adds each group's totals to its row, creating the row first if needed and dropping
+     * it once {@code emptyWhenZero} falls to zero. NULL keys are a group of their own,
+     * hence IS rather than =.
+     */
+    private static void applyTotals(StatementSource db, String table, String keyColumn, Map<?, long[]> groups,
+                                    String emptyWhenZero) throws SQLException {
+        for (Map.Entry<?, long[]> group : groups.entrySet()) {
+            long[] totals = group.getValue();
+
+            PreparedStatement update = db.prepare("UPDATE " + table + " SET students = students + ?,"
+                    + " attempts = attempts + ?, passed = passed + ?, elite = elite + ?, scoreSum = scoreSum + ?"
+                    + " WHERE " + keyColumn + " IS ?");
+            for (int i = 0; i < totals.length; i++) {
+                update.setLong(i + 1, totals[i]);
+            }
+            update.setObject(totals.length + 1, group.getKey());
+            if (update.executeUpdate() == 0) {
+                PreparedStatement insert = db.prepare("INSERT INTO " + table
+                        + " (students, attempts, passed, elite, scoreSum, " + keyColumn + ") VALUES (?,?,?,?,?,?)");
+                for (int i = 0; i < totals.length; i++) {
+                    insert.setLong(i + 1, totals[i]);
+                }
+                insert.setObject(totals.length + 1, group.getKey());
+                insert.executeUpdate();
+            }
+
+            PreparedStatement prune = db.prepare("DELETE FROM " + table
+                    + " WHERE " + keyColumn + " IS ? AND " + emptyWhenZero + " <= 0");
+            prune.setObject(1, group.getKey());
+            prune.executeUpdate();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+/**
+ * One line of a report: a group key (a batch, a semester, or "All" for the
+ * overall figures), how many students it covers and its attempt totals.
+ */
+public class SummaryRow {
+    private final String key;
+    private final long students;
+    private final AttemptStats stats;
+
+    public SummaryRow(String key, long students, AttemptStats stats) {
+        this.key = key;
+        this.students = students;
+        this.stats = stats;
+    }
+
+    // Getters
+    public String getKey() { return key; }
+    public long getStudents() { return students; }
+    public AttemptStats getStats() { return stats; }
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A substring index over short texts keyed by id. Every three-character window of a
+ * text (ASCII case folded) points to the ids whose texts contain it, so the ids that
+ * may contain a query of three or more characters are the intersection of its
+ * trigrams' lists. The result is a superset: callers check each candidate against
+ * the real text.
+ *
+ * Lists are kept sorted by id. Ids are usually added in increasing order and only
+ * appended; removals are recorded and swept out once they pile up. Not thread-safe.
+ */
+public class TrigramIndex {
+
+    private static final int INITIAL_LIST_SIZE = 4;
+
+    private static class Postings {
+        private long[] ids = new long[INITIAL_LIST_SIZE];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            if (size == 0 || ids[size - 1] < id) {
+                ids[size++] = id; // The common case: a new, higher id
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) return;
+            at = -at - 1;
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            ids[at] = id;
+            size++;
+        }
+    }
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, long[]> trigramsById = new HashMap<>();
+    private final Set<Long> removed = new HashSet<>();
+
+    public void clear() {
+        postings.clear();
+        trigramsById.clear();
+        removed.clear();
+    }
+
+    /**
+     * Indexes the texts under the id; null texts are skipped.
+     */
+    public void add(long id, String... texts) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) continue;
+            for (int i = 0; i + 3 <= text.length(); i++) {
+                trigrams.add(trigram(text, i));
+            }
+        }
+        long[] keys = new long[trigrams.size()];
+        int k = 0;
+        for (long trigram : trigrams) {
+            keys[k++] = trigram;
+            postings.computeIfAbsent(trigram, t -> new Postings()).add(id);
+        }
+        trigramsById.put(id, keys);
+        removed.remove(id);
+    }
+
+    public void remove(long id) {
+        if (trigramsById.containsKey(id) && removed.add(id) && removed.size() > Math.max(1024, trigramsById.size() / 4)) {
+            sweep();
+        }
+    }
+
+    /**
+     * @return the ids that may contain the text, in ascending order, or null if the text is
+     *         shorter than three characters and the index cannot narrow it down
+     */
+    public long[] candidates(String text) {
+        if (text.length() < 3) return null;
+
+        // Intersect the shortest list with the others
+        List<Postings> lists = new ArrayList<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            Postings list = postings.get(trigram(text, i));
+            if (list == null) return new long[0];
+            lists.add(list);
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        Postings first = lists.get(0);
+        long[] result = new long[first.size];
+        int count = 0;
+        for (int i = 0; i < first.size; i++) {
+            long id = first.ids[i];
+            if (!removed.isEmpty() && removed.contains(id)) continue;
+            boolean inAll = true;
+            for (int l = 1; l < lists.size() && inAll; l++) {
+                Postings other = lists.get(l);
+                inAll = Arrays.binarySearch(other.ids, 0, other.size, id) >= 0;
+            }
+            if (inAll) result[count++] = id;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Drops every removed id from the lists it was in.
+     */
+    private void sweep() {
+        Set<Postings> touched = new HashSet<>();
+        for (long id : removed) {
+            for (long trigram : trigramsById.remove(id)) {
+                touched.add(postings.get(trigram));
+            }
+        }
+        for (Postings list : touched) {
+            int kept = 0;
+            for (int i = 0; i < list.size; i++) {
+                if (!removed.contains(list.ids[i])) list.ids[kept++] = list.ids[i];
+            }
+            list.size = kept;
+        }
+        postings.values().removeIf(list -> list.size == 0);
+        removed.clear();
+    }
+
+    private static long trigram(String text, int at) {
+        return ((long) AttemptSearch.toLowerAscii(text.charAt(at)) << 32)
+                | ((long) AttemptSearch.toLowerAscii(text.charAt(at + 1)) << 16)
+                | AttemptSearch.toLowerAscii(text.charAt(at + 2));
+    }
+}
\ No newline at end of file